@@ -0,0 +1,113 @@
+package backend;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class stores a single shared texture for each image path, textures are reference counted and disposed once the last user releases them.
+ * @author Connor Stewart
+ */
+public class TextureCache {
+
+	/** The textures currently loaded, keyed by their image path. */
+	private static final ObjectMap<String, CachedTexture> TEXTURES = new ObjectMap<>();
+
+	/** The amount of bytes used by all loaded textures. */
+	private static long liveBytes;
+
+	private TextureCache() {}
+
+	/**
+	 * Gets the shared texture for an image, loading it if no other entity is using it.
+	 * @param imageLocation the path to the image file
+	 * @return the shared texture
+	 */
+	public static synchronized Texture obtain(String imageLocation) {
+		CachedTexture cached = TEXTURES.get(imageLocation);
+
+		if (cached == null) {
+			cached = new CachedTexture(new Texture(Gdx.files.internal(imageLocation)));
+			TEXTURES.put(imageLocation, cached);
+			liveBytes += cached.bytes;
+		}
+
+		cached.references++;
+		return cached.texture;
+	}
+
+	/**
+	 * Releases a reference to a shared texture, disposing it if it is no longer used.
+	 * @param imageLocation the path to the image file
+	 */
+	public static synchronized void release(String imageLocation) {
+		CachedTexture cached = TEXTURES.get(imageLocation);
+
+		if (cached == null)
+			return;
+
+		cached.references--;
+
+		if (cached.references <= 0) {
+			TEXTURES.remove(imageLocation);
+			liveBytes -= cached.bytes;
+			cached.texture.dispose();
+		}
+	}
+
+	/**
+	 * @return the amount of textures currently loaded
+	 */
+	public static synchronized int getLiveTextureCount() {
+		return TEXTURES.size;
+	}
+
+	/**
+	 * @return the amount of bytes used by the textures currently loaded
+	 */
+	public static synchronized long getLiveTextureBytes() {
+		return liveBytes;
+	}
+
+	/**
+	 * A texture along with how many entities are using it.
+	 */
+	private static class CachedTexture {
+
+		/** The shared texture. */
+		private final Texture texture;
+
+		/** The size of the texture in bytes. */
+		private final long bytes;
+
+		/** The amount of entities using this texture. */
+		private int references;
+
+		CachedTexture(Texture texture) {
+			this.texture = texture;
+			this.bytes = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel(texture);
+		}
+
+		/**
+		 * Gets the amount of bytes each pixel of a texture uses.
+		 * @param texture the texture to check
+		 * @return the amount of bytes per pixel
+		 */
+		private static int bytesPerPixel(Texture texture) {
+			switch (texture.getTextureData().getFormat()) {
+				case Alpha:
+				case Intensity:
+					return 1;
+				case LuminanceAlpha:
+				case RGB565:
+				case RGBA4444:
+					return 2;
+				case RGB888:
+					return 3;
+				default:
+					return 4;
+			}
+		}
+	}
+
+}
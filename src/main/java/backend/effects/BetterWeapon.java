@@ -3,6 +3,7 @@ package backend.effects;
 import backend.entities.Player;
 import backend.weapons.PlayerAutoWeapon;
 import backend.weapons.PlayerLightWeapon;
+import backend.weapons.Weapon;
 import ui.SPGame;
 
 /**
@@ -14,6 +15,9 @@ public class BetterWeapon extends Effect {
 	/** The player that fired this weapon. */
 	private final Player PLAYER;
 
+	/** The weapon the player had before this effect, given back to them when it ends. */
+	private Weapon previousWeapon;
+
 	/**
 	 * Gives the player an upgraded weapon for the duration of this effect.
 	 * @param game the game this effect has been activated in
@@ -25,13 +29,20 @@ public class BetterWeapon extends Effect {
 
 	@Override
 	public void update() {
-		if (!(PLAYER.getLeftWeapon() instanceof PlayerAutoWeapon))
+		if (!(PLAYER.getLeftWeapon() instanceof PlayerAutoWeapon)) {
+			previousWeapon = PLAYER.getLeftWeapon();
 			PLAYER.setLeftWeapon(new PlayerAutoWeapon(GAME));
+		}
 	}
 
 	@Override
 	public void end() {
-		PLAYER.setLeftWeapon(new PlayerLightWeapon());
+		Weapon current = PLAYER.getLeftWeapon();
+		if (!(current instanceof PlayerAutoWeapon))
+			return;
+
+		current.dispose();
+		PLAYER.setLeftWeapon(previousWeapon != null ? previousWeapon : new PlayerLightWeapon());
 	}
 
 }
@@ -1,7 +1,6 @@
 package backend.enemies;
 
-import backend.entities.Entity;
-import backend.entities.Player;
+import backend.logic.CollisionMatrix;
 import ui.SPGame;
 
 /**
@@ -12,13 +11,11 @@ import ui.SPGame;
 public class Asteroid extends Enemy {
 
 	/**
-	 * Create an asteroid at an x and y location.
-	 * @param x the x location to spawn the asteroid at
-	 * @param y the y location to spawn the asteroid at
+	 * Create an asteroid, it is placed when it is taken from an {@link EnemyPool}.
 	 * @param game the game this enemy has been spawned in
 	 */
-	public Asteroid(float x, float y, SPGame game) {
-		super(x, y, 0, 10, 5, 0, 4, "enemies/asteroid.png", game);
+	public Asteroid(SPGame game) {
+		super(0, 10, 5, 0, 4, "enemies/asteroid.png", game);
 	}
 
 	@Override
@@ -30,10 +27,13 @@ public class Asteroid extends Enemy {
 	}
 
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-	    //destroy the asteroid if it collides with the player
-		return (collidedWith instanceof Player);
+	public boolean updatesIndependently() {
+		return true;
 	}
 
+	@Override
+	public int getCollisionLayer() {
+		return CollisionMatrix.ASTEROID;
+	}
 
 }
\ No newline at end of file
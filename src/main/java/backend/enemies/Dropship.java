@@ -1,6 +1,5 @@
 package backend.enemies;
 
-import backend.entities.Entity;
 import ui.SPGame;
 
 /**
@@ -22,18 +21,18 @@ public class Dropship extends Enemy {
 	private double spawnTimer = 0;
 	
 	/**
-	 * Create a dropship at an x and y location.
-	 * @param x the x location to spawn the dropship at
-	 * @param y the y location to spawn the dropship at
+	 * Create a dropship, it is placed when it is taken from an {@link EnemyPool}.
 	 * @param game the game this enemy has been spawned in
 	 */
-	public Dropship(float x, float y, SPGame game) {
-		super(x, y, 50, 5, 0, 50, 4, "enemies/dropship.png", game);
+	public Dropship(SPGame game) {
+		super(50, 5, 0, 50, 4, "enemies/dropship.png", game);
 	}
 
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-		return (takeProjectileDamage(collidedWith));
+	public void reset() {
+		super.reset();
+		spawnDelay = DEFAULT_DELAY;
+		spawnTimer = 0;
 	}
 
 	@Override
@@ -46,7 +45,7 @@ public class Dropship extends Enemy {
 		} else { //can only spawn when not moving
 			if (spawnTimer > spawnDelay) {
 				spawnTimer = 0; //reset spawn timer
-				GAME.addEntity(new Runner(getCenterX(), getCenterY(), GAME));
+				GAME.addEntity(GAME.getSpawner().getRunners().obtain(getCenterX(), getCenterY()));
 			}
 		}
 	}
@@ -2,8 +2,7 @@ package backend.enemies;
 
 import backend.animations.ExplosionAnimation;
 import backend.entities.Entity;
-import backend.projectiles.Projectile;
-import backend.projectiles.ProjectileType;
+import backend.logic.CollisionMatrix;
 import ui.SPGame;
 
 /**
@@ -22,9 +21,7 @@ public abstract class Enemy extends Entity {
 	final SPGame GAME;
 	
 	/**
-	 * Create an enemy.
-	 * @param x the x coordinate to spawn them on
-	 * @param y the y coordinate to spawn them on
+	 * Create an enemy, it is placed when it is taken from an {@link EnemyPool}.
 	 * @param points the amount of points this enemy rewards
 	 * @param speed how many pixels this enemy moves per second
 	 * @param damage the amount of damage the enemy does
@@ -32,34 +29,43 @@ public abstract class Enemy extends Entity {
 	 * @param size the size of the sprite
 	 * @param imageLocation the location of this enemies image
 	 */
-	Enemy(float x, float y , int points, int speed, int damage, int maxHealth, int size, String imageLocation, SPGame game) {
+	Enemy(int points, int speed, int damage, int maxHealth, int size, String imageLocation, SPGame game) {
 		super(imageLocation, maxHealth, speed);
 		this.GAME = game;
 		this.POINTS = points;
 		this.DAMAGE = damage;
 		setSize(size,size);
-		setPosition(x, y);
 		setOriginCenter();
 	}
 	
 	/**
-	 * Handles damage from a projectile to this enemy.
-	 * @param collidedWith the entity this enemy collided with
+	 * Handles damage from a player's projectile to this enemy, adding this enemies points to the score if it is killed.
+	 * @param damage the damage done by the projectile
 	 * @return whether the damage destroyed the enemy
 	 */
-	boolean takeProjectileDamage(Entity collidedWith) {
-		if (collidedWith instanceof Projectile) {
-			if (((Projectile) collidedWith).getType().equals(ProjectileType.PLAYER)) { //if the projectile was fired by a player
-				reduceHealth(((Projectile) collidedWith).getDamage());
-				
-				if (health <= 0) { //remove the enemy if it has no health left
-					GAME.addToScore(POINTS); //add this enemies points to the score
-					return true; //destroy this enemy
-				}
-			}
+	public boolean takeDamage(double damage) {
+		reduceHealth(damage);
+		
+		if (health <= 0) { //remove the enemy if it has no health left
+			GAME.addToScore(POINTS); //add this enemies points to the score
+			return true; //destroy this enemy
 		}
+
 		return false;
 	}
+
+	/**
+	 * Whether this enemy is destroyed when it flies into the player or an asteroid.
+	 * @return whether this enemy is destroyed on contact
+	 */
+	public boolean isDestroyedOnContact() {
+		return false;
+	}
+
+	@Override
+	public int getCollisionLayer() {
+		return CollisionMatrix.ENEMY;
+	}
 	
 	/**
 	 * @return the amount of damage the enemy does on collision
@@ -0,0 +1,23 @@
+package backend.enemies;
+
+import backend.entities.EntityPool;
+
+/**
+ * A pool of enemies of a single type, destroyed enemies are returned here so spawning does not create new objects.
+ * @author Connor Stewart
+ */
+public abstract class EnemyPool<T extends Enemy> extends EntityPool<T> {
+
+	/**
+	 * Takes an enemy from the pool, or creates one if the pool is empty, and places it at a location.
+	 * @param x the x coordinate to spawn the enemy at
+	 * @param y the y coordinate to spawn the enemy at
+	 * @return the enemy
+	 */
+	public T obtain(float x, float y) {
+		T enemy = obtain();
+		enemy.setPosition(x, y);
+		return enemy;
+	}
+
+}
@@ -1,7 +1,5 @@
 package backend.enemies;
 
-import backend.entities.Entity;
-import backend.projectiles.Ball;
 import ui.SPGame;
 
 /**
@@ -20,18 +18,17 @@ public class Laser extends Enemy {
 	private double fireTimer = 0;
 
 	/**
-	 * Create a laser at an x and y location.
-	 * @param x the x location to spawn the dropship at
-	 * @param y the y location to spawn the dropship at
+	 * Create a laser, it is placed when it is taken from an {@link EnemyPool}.
 	 * @param game the game this enemy has been spawned in
 	 */
-	public Laser(float x, float y, SPGame game) {
-		super(x, y, 50, 5, 0, 15, 2, "enemies/laserShip.png", game);
+	public Laser(SPGame game) {
+		super(50, 5, 0, 15, 2, "enemies/laserShip.png", game);
 	}
 
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-		return (takeProjectileDamage(collidedWith));
+	public void reset() {
+		super.reset();
+		fireTimer = 0;
 	}
 
 	@Override
@@ -44,7 +41,7 @@ public class Laser extends Enemy {
 		} else {
 			if (fireTimer > FIRING_DELAY) {
 				fireTimer = 0;
-				GAME.addEntity(new Ball(getCenterX(), getCenterY(), getRotation() - 90)); //90 to offset image rotation
+				GAME.addEntity(GAME.getEnemyProjectiles().obtain(getCenterX(), getCenterY(), getRotation() - 90)); //90 to offset image rotation
 			}
 		}
 	}
@@ -3,8 +3,6 @@ package backend.enemies;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
 
-import backend.entities.Entity;
-import backend.entities.Player;
 import ui.SPGame;
 
 /**
@@ -20,13 +18,11 @@ public class Runner extends Enemy {
 	private static final float DEATH_SOUND_VOLUME = 0.2f;
 
 	/**
-	 * Create a runner at an x and y location.
-	 * @param x the x location to spawn the runner at
-	 * @param y the y location to spawn the runner at
+	 * Create a runner, it is placed when it is taken from an {@link EnemyPool}.
 	 * @param game the game this enemy has been spawned in
 	 */
-	public Runner(float x, float y, SPGame game) {
-		super(x, y, 10, 15, 2, 20, 2, "enemies/runner.png", game);
+	public Runner(SPGame game) {
+		super(10, 15, 2, 20, 2, "enemies/runner.png", game);
 	}
 
 	@Override
@@ -40,16 +36,10 @@ public class Runner extends Enemy {
 	public void update(float delta) {
 		moveTowards(GAME.getPlayer(), delta); //go towards the player
 	}
-	
-	@Override
-	public boolean onCollision(Entity collidedWith) {
-		if (collidedWith instanceof Player) //destroy the runner if it collides with the player
-			return true;
-		
-		if (collidedWith instanceof Asteroid) //destroy the runner if it collides with an asteroid
-			return true;
 
-		return takeProjectileDamage(collidedWith);
+	@Override
+	public boolean isDestroyedOnContact() {
+		return true; //runners fly into the player and are destroyed by asteroids
 	}
-
+	
 }
\ No newline at end of file
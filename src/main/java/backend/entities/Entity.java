@@ -1,15 +1,18 @@
 package backend.entities;
 
+import backend.logic.CollisionMatrix;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Pool;
 
 /**
- * Used to represent an entity that can interact with other entities.
+ * Used to represent an entity that can interact with other entities.<br>
+ * Entities that are spawned often are taken from an {@link EntityPool} and reset when they are returned to it.
  * @author Connor Stewart
  */
-public abstract class Entity extends InanimateEntity {
+public abstract class Entity extends InanimateEntity implements Pool.Poolable {
 	
 	/** The speed of this entity. */
 	protected double speed;
@@ -29,6 +32,12 @@ public abstract class Entity extends InanimateEntity {
 	/** The base speed of this entity. */
 	public final double DEFAULT_SPEED;
 
+	/** The seconds this entity has been in the game. */
+	private float age;
+
+	/** The pool this entity was taken from, or null if it was not taken from a pool. */
+	private EntityPool<?> pool;
+
 	/**
 	 * Creates a new instance of entity. <br>
 	 * If this maxHealth parameter is set to zero this entity will have no health system.
@@ -48,22 +57,98 @@ public abstract class Entity extends InanimateEntity {
 	}
 	
 	/**
-	 * Called when this entity collides with another entity.
-	 * @param collidedWith the entity the enemy collided with
-	 * @return whether this entity should be destroyed
+	 * Gets the collision layer of this entity, {@link CollisionMatrix} defines what happens when entities on two layers collide.
+	 * @return a single layer bit from {@link CollisionMatrix}
+	 */
+	public abstract int getCollisionLayer();
+
+	/**
+	 * @return the collision layers this entity interacts with
 	 */
-	public abstract boolean onCollision(Entity collidedWith);
+	public int getCollisionMask() {
+		return CollisionMatrix.getMask(getCollisionLayer());
+	}
 	
 	/**
 	 * Called when this entity is removed from the game.
 	 */
 	public abstract void onDestroy();
 
+	/**
+	 * Removes this entity from the game, calling {@link #onDestroy()} and either returning it to its pool or releasing its texture.
+	 */
+	public void destroy() {
+		onDestroy();
+		discard();
+	}
+
+	/**
+	 * Removes this entity from the game without calling {@link #onDestroy()}, used for entities that leave the game without being destroyed.<br>
+	 * The entity is returned to its pool or has its texture released.
+	 */
+	public void discard() {
+		if (pool != null)
+			pool.freeEntity(this);
+		else
+			releaseTexture();
+	}
+
+	/**
+	 * Clears the state this entity gained while it was in the game, called when it is returned to its pool.
+	 */
+	@Override
+	public void reset() {
+		health = maxHealth;
+		speed = DEFAULT_SPEED;
+		multiplayerID = 0;
+		age = 0;
+		setRotation(0);
+	}
+
+	/**
+	 * Adds to the time this entity has been in the game.
+	 * @param delta the time since the last update
+	 */
+	public void age(float delta) {
+		age += delta;
+	}
+
+	/**
+	 * @return the seconds this entity has been in the game
+	 */
+	public float getAge() {
+		return age;
+	}
+
+	/**
+	 * Gets how long entities of this type can stay in the game, entities with no limit are still removed once they leave the map.
+	 * @return the seconds this entity can stay in the game, or zero if it has no limit
+	 */
+	public float getTimeToLive() {
+		return 0;
+	}
+
+	/**
+	 * @param pool the pool this entity was taken from
+	 */
+	void setPool(EntityPool<?> pool) {
+		this.pool = pool;
+	}
+
 	/**
 	 * Moves this entity.
 	 * @param delta the time since the last frame was rendered
 	 */
 	public abstract void update(float delta);
+
+	/**
+	 * Whether this entities {@link #update(float)} only reads and changes its own state, such entities can be updated on any thread in any order.<br>
+	 * Entities that look at other entities or add entities to the game must return false.
+	 * @return whether this entity updates independently of the rest of the game
+	 */
+	public boolean updatesIndependently() {
+		return false;
+	}
 	
 	/**
 	 * Moves the entity forward
@@ -0,0 +1,54 @@
+package backend.entities;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * A pool of entities, destroyed entities are returned here so the game does not create new objects for entities it spawns often.<br>
+ * Entities keep their sprite while they wait in the pool, their textures are released once the pool is disposed.
+ * @author Connor Stewart
+ */
+public abstract class EntityPool<T extends Entity> extends Pool<T> {
+
+	/** Whether this pool has been disposed, entities freed after this are released instead of being kept. */
+	private boolean disposed;
+
+	/**
+	 * Takes an entity from the pool, or creates one if the pool is empty.<br>
+	 * The entity returns itself to this pool when it is destroyed.
+	 * @return the entity
+	 */
+	@Override
+	public T obtain() {
+		T entity = super.obtain();
+		entity.setPool(this);
+		return entity;
+	}
+
+	@Override
+	public void free(T entity) {
+		if (disposed)
+			entity.releaseTexture();
+		else
+			super.free(entity);
+	}
+
+	/**
+	 * Returns an entity that was taken from this pool.
+	 * @param entity the entity to return
+	 */
+	@SuppressWarnings("unchecked")
+	void freeEntity(Entity entity) {
+		free((T) entity);
+	}
+
+	/**
+	 * Releases the textures of the entities waiting in this pool, entities still in the game release theirs when they are destroyed.
+	 */
+	public void dispose() {
+		disposed = true;
+
+		while (getFree() > 0)
+			super.obtain().releaseTexture();
+	}
+
+}
@@ -1,23 +1,66 @@
 package backend.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import backend.TextureCache;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 
 /**
- * Used to represent an entity that does not interact with other entities.
+ * Used to represent an entity that does not interact with other entities.<br>
+ * An entity only stores its position, size and rotation, the sprite used to draw it is created the first time it is drawn.
+ * This means entities can be simulated on the server without loading any images.
  * @author Connor Stewart
  */
-public class InanimateEntity extends Sprite {
-	
+public class InanimateEntity {
+
+	/** The path to the image file for this entity. */
+	private final String imageLocation;
+
+	/** The sprite used to draw this entity, null until the entity is first drawn. */
+	private Sprite sprite;
+
+	/** Whether this entity has released its shared texture. */
+	private boolean released;
+
+	/** The x coordinate of the bottom left corner. */
+	private float x;
+
+	/** The y coordinate of the bottom left corner. */
+	private float y;
+
+	/** The width of this entity. */
+	private float width;
+
+	/** The height of this entity. */
+	private float height;
+
+	/** The x coordinate this entity rotates and scales around, relative to its bottom left corner. */
+	private float originX;
+
+	/** The y coordinate this entity rotates and scales around, relative to its bottom left corner. */
+	private float originY;
+
+	/** The rotation of this entity in degrees. */
+	private float rotation;
+
+	/** The horizontal scale of this entity. */
+	private float scaleX = 1;
+
+	/** The vertical scale of this entity. */
+	private float scaleY = 1;
+
+	/** The rectangle returned by {@link #getBoundingRectangle()}. */
+	private final Rectangle bounds = new Rectangle();
+
 	/**
 	 * Creates a new entity.
 	 * @param imageLocation the path to the image file for this entity
 	 */
 	InanimateEntity(String imageLocation) {
-		super(new Texture(Gdx.files.internal(imageLocation)));
+		this.imageLocation = imageLocation;
 	}
-	
+
 	/**
 	 * Creates an entity with a specific size
 	 * @param imageLocation the path to the image file for this entity
@@ -28,14 +71,46 @@ public class InanimateEntity extends Sprite {
 		this(imageLocation);
 		setSize(gameWidth, gameHeight);
 	}
-	
+
+	/**
+	 * Sizes this entity to match its image and sets its origin to its center, this loads the image so should only be used on the client.
+	 */
+	protected void setSizeToImage() {
+		Sprite sprite = getSprite();
+		setSize(sprite.getWidth(), sprite.getHeight());
+		setOriginCenter();
+	}
+
+	/**
+	 * Draws this entity, loading its image the first time it is drawn.
+	 * @param batch the batch to draw with
+	 */
+	public void draw(Batch batch) {
+		Sprite sprite = getSprite();
+		sprite.setBounds(x, y, width, height);
+		sprite.setOrigin(originX, originY);
+		sprite.setRotation(rotation);
+		sprite.setScale(scaleX, scaleY);
+		sprite.draw(batch);
+	}
+
+	/**
+	 * @return the sprite used to draw this entity, created if this entity has not been drawn yet
+	 */
+	private Sprite getSprite() {
+		if (sprite == null)
+			sprite = new Sprite(TextureCache.obtain(imageLocation));
+
+		return sprite;
+	}
+
 	/**
 	 * @return the x coordinate of the center of the entity
 	 */
 	public float getCenterX() {
 		return getX() + (getWidth() / 2);
 	}
-	
+
 	/**
 	 * @return the y coordinate of the center of the entity
 	 */
@@ -43,4 +118,235 @@ public class InanimateEntity extends Sprite {
 		return getY() + (getHeight() / 2);
 	}
 
+	/**
+	 * @return the x coordinate of the bottom left corner
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * @return the y coordinate of the bottom left corner
+	 */
+	public float getY() {
+		return y;
+	}
+
+	/**
+	 * @param x the x coordinate of the bottom left corner
+	 */
+	public void setX(float x) {
+		this.x = x;
+	}
+
+	/**
+	 * @param y the y coordinate of the bottom left corner
+	 */
+	public void setY(float y) {
+		this.y = y;
+	}
+
+	/**
+	 * Moves this entity to a position.
+	 * @param x the x coordinate of the bottom left corner
+	 * @param y the y coordinate of the bottom left corner
+	 */
+	public void setPosition(float x, float y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Moves this entity by an amount.
+	 * @param xAmount the distance to move along the x axis
+	 * @param yAmount the distance to move along the y axis
+	 */
+	public void translate(float xAmount, float yAmount) {
+		x += xAmount;
+		y += yAmount;
+	}
+
+	/**
+	 * @param xAmount the distance to move along the x axis
+	 */
+	public void translateX(float xAmount) {
+		x += xAmount;
+	}
+
+	/**
+	 * @param yAmount the distance to move along the y axis
+	 */
+	public void translateY(float yAmount) {
+		y += yAmount;
+	}
+
+	/**
+	 * @return the width of this entity
+	 */
+	public float getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of this entity
+	 */
+	public float getHeight() {
+		return height;
+	}
+
+	/**
+	 * Sets the size of this entity, the origin is not changed.
+	 * @param width the new width
+	 * @param height the new height
+	 */
+	public void setSize(float width, float height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Sets the position and size of this entity.
+	 * @param x the x coordinate of the bottom left corner
+	 * @param y the y coordinate of the bottom left corner
+	 * @param width the new width
+	 * @param height the new height
+	 */
+	public void setBounds(float x, float y, float width, float height) {
+		setPosition(x, y);
+		setSize(width, height);
+	}
+
+	/**
+	 * Sets the point this entity rotates and scales around.
+	 * @param originX the x coordinate relative to the bottom left corner
+	 * @param originY the y coordinate relative to the bottom left corner
+	 */
+	public void setOrigin(float originX, float originY) {
+		this.originX = originX;
+		this.originY = originY;
+	}
+
+	/**
+	 * Sets the point this entity rotates and scales around to its center.
+	 */
+	public void setOriginCenter() {
+		setOrigin(width / 2, height / 2);
+	}
+
+	/**
+	 * @return the x coordinate this entity rotates around, relative to its bottom left corner
+	 */
+	public float getOriginX() {
+		return originX;
+	}
+
+	/**
+	 * @return the y coordinate this entity rotates around, relative to its bottom left corner
+	 */
+	public float getOriginY() {
+		return originY;
+	}
+
+	/**
+	 * @return the rotation of this entity in degrees
+	 */
+	public float getRotation() {
+		return rotation;
+	}
+
+	/**
+	 * @param degrees the rotation of this entity in degrees
+	 */
+	public void setRotation(float degrees) {
+		rotation = degrees;
+	}
+
+	/**
+	 * Rotates this entity by an amount.
+	 * @param degrees the amount to rotate by
+	 */
+	public void rotate(float degrees) {
+		rotation += degrees;
+	}
+
+	/**
+	 * Scales this entity around its origin.
+	 * @param scaleXY the horizontal and vertical scale
+	 */
+	public void setScale(float scaleXY) {
+		setScale(scaleXY, scaleXY);
+	}
+
+	/**
+	 * Scales this entity around its origin.
+	 * @param scaleX the horizontal scale
+	 * @param scaleY the vertical scale
+	 */
+	public void setScale(float scaleX, float scaleY) {
+		this.scaleX = scaleX;
+		this.scaleY = scaleY;
+	}
+
+	/**
+	 * @return the horizontal scale of this entity
+	 */
+	public float getScaleX() {
+		return scaleX;
+	}
+
+	/**
+	 * @return the vertical scale of this entity
+	 */
+	public float getScaleY() {
+		return scaleY;
+	}
+
+	/**
+	 * Gets the smallest rectangle containing this entity after it has been scaled and rotated.<br>
+	 * The same rectangle is returned every call, so it should be copied if it needs to be kept.
+	 * @return the bounding rectangle
+	 */
+	public Rectangle getBoundingRectangle() {
+		float worldOriginX = x + originX;
+		float worldOriginY = y + originY;
+
+		//the corners relative to the origin
+		float left = -originX * scaleX;
+		float bottom = -originY * scaleY;
+		float right = (width - originX) * scaleX;
+		float top = (height - originY) * scaleY;
+
+		if (rotation == 0)
+			return bounds.set(worldOriginX + left, worldOriginY + bottom, right - left, top - bottom);
+
+		float cos = MathUtils.cosDeg(rotation);
+		float sin = MathUtils.sinDeg(rotation);
+
+		float x1 = left * cos - bottom * sin, y1 = bottom * cos + left * sin;
+		float x2 = left * cos - top * sin, y2 = top * cos + left * sin;
+		float x3 = right * cos - top * sin, y3 = top * cos + right * sin;
+		float x4 = right * cos - bottom * sin, y4 = bottom * cos + right * sin;
+
+		float minX = Math.min(Math.min(x1, x2), Math.min(x3, x4));
+		float minY = Math.min(Math.min(y1, y2), Math.min(y3, y4));
+		float maxX = Math.max(Math.max(x1, x2), Math.max(x3, x4));
+		float maxY = Math.max(Math.max(y1, y2), Math.max(y3, y4));
+
+		return bounds.set(worldOriginX + minX, worldOriginY + minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * Releases this entities reference to its shared texture, should be called once the entity is no longer drawn.<br>
+	 * Does nothing if the entity was never drawn.
+	 */
+	public void releaseTexture() {
+		if (released)
+			return;
+
+		released = true;
+
+		if (sprite != null)
+			TextureCache.release(imageLocation);
+	}
+
 }
@@ -1,7 +1,5 @@
 package backend.entities;
 
-import backend.projectiles.Projectile;
-import backend.projectiles.ProjectileType;
 import network.Network;
 
 /**
@@ -9,6 +7,39 @@ import network.Network;
  * @author Connor Stewart
  */
 public class MultiplayerPlayer extends Player {
+
+	/** The bit used to represent moving up. */
+	public static final int UP = 1;
+
+	/** The bit used to represent moving down. */
+	public static final int DOWN = 1 << 1;
+
+	/** The bit used to represent moving left. */
+	public static final int LEFT = 1 << 2;
+
+	/** The bit used to represent moving right. */
+	public static final int RIGHT = 1 << 3;
+
+	/** The bit used to represent firing the light weapon. */
+	public static final int FIRE_LIGHT = 1 << 4;
+
+	/** The bit used to represent firing the heavy weapon. */
+	public static final int FIRE_HEAVY = 1 << 5;
+
+	/** The longest frame in seconds a single input command can move a player for. */
+	public static final float MAX_INPUT_DELTA = 0.1f;
+
+	/** The sequence number of the last input command applied to this player. */
+	private int lastInputSequence;
+
+	/** The input bits from the latest input command, held until a newer command arrives. */
+	private int heldButtons;
+
+	/** The rotation from the latest input command. */
+	private float aimRotation;
+
+	/** The frame of the newest snapshot this players client has acknowledged. */
+	private int lastSnapshotAck;
 	
 	/** The players nickname. */
 	private String playerName;
@@ -25,7 +56,42 @@ public class MultiplayerPlayer extends Player {
 	public void update(float delta) {
 		leftWeapon.update(delta);
 		rightWeapon.update(delta);
-		
+	}
+
+	@Override
+	public boolean updatesIndependently() {
+		return true;
+	}
+
+	/**
+	 * Applies a frame of input to this player, turning it and moving it for the length of the frame.
+	 * @param buttons the bits of the movement keys that are held
+	 * @param rotation the rotation the player is aiming at
+	 * @param delta the length of the frame the input was held for
+	 */
+	public void applyInput(int buttons, float rotation, float delta) {
+		setRotation(rotation);
+
+		if ((buttons & UP) != 0)
+			moveUp(delta);
+
+		if ((buttons & DOWN) != 0)
+			moveDown(delta);
+
+		if ((buttons & LEFT) != 0)
+			moveLeft(delta);
+
+		if ((buttons & RIGHT) != 0)
+			moveRight(delta);
+
+		move(delta);
+	}
+
+	/**
+	 * Moves this player using its momentum, slowing it down with drag and keeping it inside the map.
+	 * @param delta the time to move the player for
+	 */
+	private void move(float delta) {
 		//apply drag
 		if (xDelta > 0)
 			xDelta -= (DRAG * delta);
@@ -114,6 +180,84 @@ public class MultiplayerPlayer extends Player {
         kills++;
     }
 
+    /**
+     * @return the speed this player is moving along the x axis
+     */
+    public float getXVelocity() {
+        return (float) xDelta;
+    }
+
+    /**
+     * @return the speed this player is moving along the y axis
+     */
+    public float getYVelocity() {
+        return (float) yDelta;
+    }
+
+    /**
+     * Sets the speed this player is moving at.
+     * @param xVelocity the speed along the x axis
+     * @param yVelocity the speed along the y axis
+     */
+    public void setVelocity(float xVelocity, float yVelocity) {
+        xDelta = xVelocity;
+        yDelta = yVelocity;
+    }
+
+    /**
+     * @return the sequence number of the last input command applied to this player
+     */
+    public int getLastInputSequence() {
+        return lastInputSequence;
+    }
+
+    /**
+     * Sets the sequence number of the last input command applied to this player.
+     * @param sequence the sequence number
+     */
+    public void setLastInputSequence(int sequence) {
+        lastInputSequence = sequence;
+    }
+
+    /**
+     * Stores the input from the latest input command, it is applied every step until a newer command arrives.
+     * @param buttons the bits of the keys and mouse buttons that are held
+     * @param rotation the rotation the player is aiming at
+     */
+    public void setHeldInput(int buttons, float rotation) {
+        heldButtons = buttons;
+        aimRotation = rotation;
+    }
+
+    /**
+     * @return the input bits from the latest input command
+     */
+    public int getHeldButtons() {
+        return heldButtons;
+    }
+
+    /**
+     * @return the rotation from the latest input command
+     */
+    public float getAimRotation() {
+        return aimRotation;
+    }
+
+    /**
+     * @return the frame of the newest snapshot this players client has acknowledged
+     */
+    public int getLastSnapshotAck() {
+        return lastSnapshotAck;
+    }
+
+    /**
+     * Sets the frame of the newest snapshot this players client has acknowledged.
+     * @param frame the snapshots frame
+     */
+    public void setLastSnapshotAck(int frame) {
+        lastSnapshotAck = frame;
+    }
+
     /**
      * @return this players nickname used to identify them on the server
      */
@@ -136,16 +280,4 @@ public class MultiplayerPlayer extends Player {
 		this.kills = kills;
 	}
 	
-	@Override
-	public boolean onCollision(Entity collidedWith) {
-		if (collidedWith instanceof Projectile) {
-			Projectile projectile = (Projectile) collidedWith;
-			//if colliding with a projectile that's not the players and is not fired by this player
-			if (!projectile.getType().equals(ProjectileType.PLAYER) && projectile.getFiredByID() != getMultiplayerID())
-				reduceHealth(projectile.getDamage());
-		}
-		
-		return (getHealth() <= 0);
-	}
-
 }
@@ -1,8 +1,7 @@
 package backend.entities;
 
-import backend.enemies.Enemy;
+import backend.logic.CollisionMatrix;
 import backend.projectiles.Projectile;
-import backend.projectiles.ProjectileType;
 import backend.weapons.PlayerHeavyWeapon;
 import backend.weapons.PlayerLightWeapon;
 import backend.weapons.Weapon;
@@ -89,18 +88,8 @@ public class Player extends Entity {
 	}
 
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-		if (collidedWith instanceof Enemy)
-			reduceHealth(((Enemy) collidedWith).getDamage());
-		
-		if (collidedWith instanceof Projectile) {
-			//if colliding with a projectile that's not the players
-			if (!((Projectile) collidedWith).getType().equals(ProjectileType.PLAYER)) {
-				reduceHealth(((Projectile) collidedWith).getDamage());
-			}
-		}
-		
-		return getHealth() <= 0;
+	public int getCollisionLayer() {
+		return CollisionMatrix.PLAYER;
 	}
 
 	@Override
@@ -166,6 +155,16 @@ public class Player extends Entity {
 
 	}
 
+	/**
+	 * Releases this players texture along with the projectiles its weapons keep for reuse.
+	 */
+	@Override
+	public void releaseTexture() {
+		super.releaseTexture();
+		leftWeapon.dispose();
+		rightWeapon.dispose();
+	}
+
 	/**
 	 * Sets the weapon that is fired when the player left clicks.
 	 * @param toSet the new weapon
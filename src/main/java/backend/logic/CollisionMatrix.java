@@ -0,0 +1,161 @@
+package backend.logic;
+
+import backend.enemies.Asteroid;
+import backend.enemies.Enemy;
+import backend.entities.Entity;
+import backend.entities.Player;
+import backend.pickups.Pickup;
+import backend.projectiles.Projectile;
+
+/**
+ * This class defines which kinds of entities interact when they collide and what happens when they do.<br>
+ * Every entity is on a single collision layer, a bit, and its mask holds the layers it interacts with.
+ * Pairs whose layers do not interact can be skipped before their bounds are tested, pairs that do are resolved by the handler registered for their layers.
+ * The matrix is used by the single player game, where the player never interacts with its own projectiles.
+ * Multiplayer hits between players and other players projectiles are resolved by the server game instead.
+ * @author Connor Stewart
+ */
+public final class CollisionMatrix {
+
+	/** The layer of the player. */
+	public static final int PLAYER = 1;
+
+	/** The layer of enemies that can be damaged. */
+	public static final int ENEMY = 1 << 1;
+
+	/** The layer of asteroids, enemies that can only be destroyed by flying into them. */
+	public static final int ASTEROID = 1 << 2;
+
+	/** The layer of projectiles fired by the player. */
+	public static final int PLAYER_PROJECTILE = 1 << 3;
+
+	/** The layer of projectiles fired by enemies. */
+	public static final int ENEMY_PROJECTILE = 1 << 4;
+
+	/** The layer of pickups. */
+	public static final int PICKUP = 1 << 5;
+
+	/** The amount of layers. */
+	private static final int LAYER_COUNT = 6;
+
+	/** A handler result meaning the first entity should be destroyed. */
+	public static final int DESTROY_FIRST = 1;
+
+	/** A handler result meaning the second entity should be destroyed. */
+	public static final int DESTROY_SECOND = 1 << 1;
+
+	/** The layers each layer interacts with, indexed by layer index. */
+	private static final int[] MASKS = new int[LAYER_COUNT];
+
+	/** The handler for each pair of layers, indexed by the layer index of the first entity then the second. */
+	private static final Handler[][] HANDLERS = new Handler[LAYER_COUNT][LAYER_COUNT];
+
+	static {
+		interact(PLAYER, ENEMY, (player, enemy) -> {
+			((Player) player).reduceHealth(((Enemy) enemy).getDamage());
+			return destroyIf(player.getHealth() <= 0, ((Enemy) enemy).isDestroyedOnContact());
+		});
+
+		interact(PLAYER, ASTEROID, (player, asteroid) -> {
+			player.reduceHealth(((Asteroid) asteroid).getDamage());
+			return destroyIf(player.getHealth() <= 0, true);
+		});
+
+		interact(PLAYER, ENEMY_PROJECTILE, (player, projectile) -> {
+			player.reduceHealth(((Projectile) projectile).getDamage());
+			return destroyIf(player.getHealth() <= 0, true);
+		});
+
+		interact(PLAYER, PICKUP, (player, pickup) -> {
+			((Pickup) pickup).activate();
+			return DESTROY_SECOND;
+		});
+
+		interact(PLAYER_PROJECTILE, ENEMY, (projectile, enemy) ->
+				destroyIf(true, ((Enemy) enemy).takeDamage(((Projectile) projectile).getDamage())));
+
+		interact(PLAYER_PROJECTILE, ASTEROID, (projectile, asteroid) -> DESTROY_FIRST);
+
+		interact(ENEMY_PROJECTILE, ASTEROID, (projectile, asteroid) -> DESTROY_FIRST);
+
+		interact(ENEMY, ASTEROID, (enemy, asteroid) -> destroyIf(((Enemy) enemy).isDestroyedOnContact(), false));
+	}
+
+	private CollisionMatrix() {}
+
+	/**
+	 * Registers two layers as interacting, along with the handler that resolves their collisions.
+	 * @param first the layer of the first entity passed to the handler
+	 * @param second the layer of the second entity passed to the handler
+	 * @param handler the handler
+	 */
+	private static void interact(int first, int second, Handler handler) {
+		int firstIndex = index(first);
+		int secondIndex = index(second);
+
+		MASKS[firstIndex] |= second;
+		MASKS[secondIndex] |= first;
+
+		HANDLERS[firstIndex][secondIndex] = handler;
+		HANDLERS[secondIndex][firstIndex] = (a, b) -> swap(handler.resolve(b, a));
+	}
+
+	/**
+	 * @param layer a single layer bit
+	 * @return the layers that layer interacts with
+	 */
+	public static int getMask(int layer) {
+		return MASKS[index(layer)];
+	}
+
+	/**
+	 * Resolves a collision between two entities using the handler for their layers.
+	 * @param a the first entity
+	 * @param b the second entity
+	 * @return {@link #DESTROY_FIRST} and {@link #DESTROY_SECOND} combined for the entities that should be destroyed
+	 */
+	public static int resolve(Entity a, Entity b) {
+		Handler handler = HANDLERS[index(a.getCollisionLayer())][index(b.getCollisionLayer())];
+		return handler == null ? 0 : handler.resolve(a, b);
+	}
+
+	/**
+	 * @param layer a single layer bit
+	 * @return the index of the layer
+	 */
+	private static int index(int layer) {
+		return Integer.numberOfTrailingZeros(layer);
+	}
+
+	/**
+	 * @param first whether the first entity should be destroyed
+	 * @param second whether the second entity should be destroyed
+	 * @return the handler result
+	 */
+	private static int destroyIf(boolean first, boolean second) {
+		return (first ? DESTROY_FIRST : 0) | (second ? DESTROY_SECOND : 0);
+	}
+
+	/**
+	 * @param result a handler result
+	 * @return the result with the first and second entity swapped
+	 */
+	private static int swap(int result) {
+		return (result & DESTROY_FIRST) << 1 | (result & DESTROY_SECOND) >> 1;
+	}
+
+	/**
+	 * Resolves a collision between two entities on a specific pair of layers.
+	 */
+	private interface Handler {
+
+		/**
+		 * @param first the entity on the first layer
+		 * @param second the entity on the second layer
+		 * @return {@link #DESTROY_FIRST} and {@link #DESTROY_SECOND} combined for the entities that should be destroyed
+		 */
+		int resolve(Entity first, Entity second);
+
+	}
+
+}
@@ -0,0 +1,131 @@
+package backend.logic;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every pair of entities whose bounds overlap by checking the entities that share each broadphase cell.<br>
+ * Cells are independent, so large grids can be checked across the threads of the common fork/join pool.
+ * The pairs are sorted afterwards, so they come out in the same order however the cells were split.
+ * @author Connor Stewart
+ */
+public final class CollisionPairs {
+
+	/** The smallest amount of used cells worth splitting across threads. */
+	public static final int MIN_PARALLEL_CELLS = 64;
+
+	/** The amount of cells each task checks before it stops splitting. */
+	private static final int BATCH_SIZE = 32;
+
+	private CollisionPairs() {}
+
+	/**
+	 * Finds every pair of entities whose stored bounds overlap, each pair is found once.
+	 * @param broadphase the grid the entities have been inserted into
+	 * @param store the bounds of the entities, with their collision layers loaded
+	 * @param parallel whether to check the cells across threads, ignored for grids with less than {@link #MIN_PARALLEL_CELLS} used cells
+	 * @param out the array to store the pairs in, this is cleared first. Each pair is stored as the lower index in the top 32 bits and the higher index in the bottom 32 bits,
+	 *            sorted by the lower index and then the higher index
+	 */
+	public static void find(SpatialHash broadphase, EntityStore store, boolean parallel, LongArray out) {
+		out.clear();
+
+		if (parallel && broadphase.getUsedCellCount() >= MIN_PARALLEL_CELLS)
+			out.addAll(ForkJoinPool.commonPool().invoke(new FindTask(broadphase, store, 0, broadphase.getUsedCellCount())));
+		else
+			findInCells(broadphase, store, 0, broadphase.getUsedCellCount(), out);
+
+		out.sort();
+	}
+
+	/**
+	 * @param pair a pair found by {@link #find(SpatialHash, EntityStore, boolean, LongArray)}
+	 * @return the lower index in the pair
+	 */
+	public static int first(long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	/**
+	 * @param pair a pair found by {@link #find(SpatialHash, EntityStore, boolean, LongArray)}
+	 * @return the higher index in the pair
+	 */
+	public static int second(long pair) {
+		return (int) pair;
+	}
+
+	/**
+	 * Finds the overlapping pairs owned by a range of used cells.
+	 * @param broadphase the grid the entities have been inserted into
+	 * @param store the bounds of the entities
+	 * @param start the first used cell to check
+	 * @param end the used cell after the last one to check
+	 * @param out the array to add the pairs to
+	 */
+	private static void findInCells(SpatialHash broadphase, EntityStore store, int start, int end, LongArray out) {
+		for (int c = start; c < end; c++) {
+			IntArray cell = broadphase.getUsedCell(c);
+			int position = broadphase.getUsedCellPosition(c);
+
+			for (int i = 0; i < cell.size; i++) {
+				int a = cell.get(i);
+
+				for (int j = i + 1; j < cell.size; j++) {
+					int b = cell.get(j);
+
+					//a pair is stored in every cell both entities overlap, only the owning cell reports it
+					if (store.interacts(a, b) && store.overlaps(a, b) && store.getOwningCell(broadphase, a, b) == position)
+						out.add(a < b ? (long) a << 32 | b : (long) b << 32 | a);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the pairs owned by a range of used cells, splitting it in half until it is no bigger than {@link #BATCH_SIZE}.
+	 */
+	@SuppressWarnings("serial") //tasks are never serialized
+	private static class FindTask extends RecursiveTask<LongArray> {
+
+		/** The grid the entities have been inserted into. */
+		private final SpatialHash broadphase;
+
+		/** The bounds of the entities. */
+		private final EntityStore store;
+
+		/** The first used cell this task checks. */
+		private final int start;
+
+		/** The used cell after the last one this task checks. */
+		private final int end;
+
+		FindTask(SpatialHash broadphase, EntityStore store, int start, int end) {
+			this.broadphase = broadphase;
+			this.store = store;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected LongArray compute() {
+			if (end - start > BATCH_SIZE) {
+				int middle = (start + end) >>> 1;
+				FindTask right = new FindTask(broadphase, store, middle, end);
+				right.fork();
+
+				LongArray pairs = new FindTask(broadphase, store, start, middle).compute();
+				pairs.addAll(right.join());
+				return pairs;
+			}
+
+			LongArray pairs = new LongArray();
+			findInCells(broadphase, store, start, end, pairs);
+			return pairs;
+		}
+
+	}
+
+}
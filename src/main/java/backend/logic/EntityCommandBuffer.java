@@ -0,0 +1,108 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+
+/**
+ * Queues changes to a games entity array so entities can be spawned and removed while the array is being iterated.<br>
+ * Removals are recorded by index and spawns are held in a separate array, both are applied together by {@link #apply()} in a single pass over the entities.
+ * Until then every index in the entity array keeps pointing at the same entity.
+ * @author Connor Stewart
+ */
+public class EntityCommandBuffer {
+
+	/** The entity array this buffer changes. */
+	private final Array<Entity> entities;
+
+	/** The entities waiting to be added. */
+	private final Array<Entity> spawned = new Array<>();
+
+	/** The indexes of entities waiting to be destroyed. */
+	private final Bits destroyed = new Bits();
+
+	/** The indexes of entities waiting to be discarded. */
+	private final Bits discarded = new Bits();
+
+	/**
+	 * @param entities the entity array this buffer changes
+	 */
+	public EntityCommandBuffer(Array<Entity> entities) {
+		this.entities = entities;
+	}
+
+	/**
+	 * Queues an entity to be added to the game.
+	 * @param entity the entity to add
+	 */
+	public void spawn(Entity entity) {
+		spawned.add(entity);
+	}
+
+	/**
+	 * Queues an entity to be removed with {@link Entity#destroy()}.
+	 * @param index the index of the entity
+	 */
+	public void destroy(int index) {
+		destroyed.set(index);
+	}
+
+	/**
+	 * Queues an entity to be removed with {@link Entity#discard()}.
+	 * @param index the index of the entity
+	 */
+	public void discard(int index) {
+		if (!destroyed.get(index))
+			discarded.set(index);
+	}
+
+	/**
+	 * @param index the index of the entity
+	 * @return whether the entity is waiting to be removed
+	 */
+	public boolean isRemoved(int index) {
+		return destroyed.get(index) || discarded.get(index);
+	}
+
+	/**
+	 * @return the amount of entities waiting to be added
+	 */
+	public int getSpawnCount() {
+		return spawned.size;
+	}
+
+	/**
+	 * Removes the queued entities, keeping the order of the rest, then adds the queued spawns to the end of the array.
+	 */
+	public void apply() {
+		int kept = 0;
+		for (int i = 0; i < entities.size; i++) {
+			Entity entity = entities.get(i);
+			if (destroyed.get(i))
+				entity.destroy();
+			else if (discarded.get(i))
+				entity.discard();
+			else
+				entities.set(kept++, entity);
+		}
+		entities.truncate(kept);
+
+		entities.addAll(spawned);
+		spawned.clear();
+		destroyed.clear();
+		discarded.clear();
+	}
+
+	/**
+	 * Throws away every queued change without applying it, releasing the queued spawns.
+	 */
+	public void clear() {
+		for (Entity entity : spawned)
+			entity.releaseTexture();
+
+		spawned.clear();
+		destroyed.clear();
+		discarded.clear();
+	}
+
+}
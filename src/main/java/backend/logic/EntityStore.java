@@ -0,0 +1,171 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Stores the bounds of a games entities in parallel float arrays, indexed the same as the games entity array.<br>
+ * Bounds are worked out once per update by {@link #load(Array)}, so collision checks read four floats instead of recomputing an entities rotated bounds for every pair it is tested against.
+ * Games that use {@link CollisionMatrix} also load each entities collision layer and mask with {@link #loadLayers(Array)}, so pairs that cannot interact are rejected with a single bitwise test.
+ * @author Connor Stewart
+ */
+public class EntityStore {
+
+	/** The left edge of each entities bounds. */
+	private float[] minX = new float[64];
+
+	/** The bottom edge of each entities bounds. */
+	private float[] minY = new float[64];
+
+	/** The right edge of each entities bounds. */
+	private float[] maxX = new float[64];
+
+	/** The top edge of each entities bounds. */
+	private float[] maxY = new float[64];
+
+	/** The collision layer of each entity. */
+	private int[] layers = new int[64];
+
+	/** The collision layers each entity interacts with. */
+	private int[] masks = new int[64];
+
+	/** The amount of entities stored. */
+	private int size;
+
+	/**
+	 * Replaces the stored bounds with the current bounds of every entity.
+	 * @param entities the entities in the game
+	 */
+	public void load(Array<Entity> entities) {
+		ensureCapacity(entities.size);
+		size = entities.size;
+
+		for (int i = 0; i < size; i++)
+			update(i, entities.get(i));
+	}
+
+	/**
+	 * Replaces the stored collision layers and masks with those of every entity, must be called after {@link #load(Array)} before {@link #interacts(int, int)} is used.
+	 * @param entities the entities in the game, the same entities passed to {@link #load(Array)}
+	 */
+	public void loadLayers(Array<Entity> entities) {
+		for (int i = 0; i < size; i++) {
+			Entity entity = entities.get(i);
+			layers[i] = entity.getCollisionLayer();
+			masks[i] = entity.getCollisionMask();
+		}
+	}
+
+	/**
+	 * Replaces the stored bounds of a single entity, used when an entity moves during a collision pass.
+	 * @param index the index of the entity
+	 * @param entity the entity
+	 */
+	public void update(int index, Entity entity) {
+		Rectangle bounds = entity.getBoundingRectangle();
+		minX[index] = bounds.x;
+		minY[index] = bounds.y;
+		maxX[index] = bounds.x + bounds.width;
+		maxY[index] = bounds.y + bounds.height;
+	}
+
+	/**
+	 * Checks whether two entities are on layers that interact, this is cheaper than comparing their bounds so should be checked first.
+	 * @param a the index of the first entity
+	 * @param b the index of the second entity
+	 * @return whether a collision between the entities does anything
+	 */
+	public boolean interacts(int a, int b) {
+		return (masks[a] & layers[b]) != 0;
+	}
+
+	/**
+	 * Checks whether the bounds of two entities overlap, matching {@link Rectangle#overlaps(Rectangle)}.
+	 * @param a the index of the first entity
+	 * @param b the index of the second entity
+	 * @return whether the bounds overlap
+	 */
+	public boolean overlaps(int a, int b) {
+		return minX[a] < maxX[b] && maxX[a] > minX[b] && minY[a] < maxY[b] && maxY[a] > minY[b];
+	}
+
+	/**
+	 * Gets the cell that owns the overlap of two entities, the cell holding the bottom left corner of the area they share.<br>
+	 * Both entities are always stored in this cell, so checking pairs only in their owning cell finds each pair once.
+	 * @param broadphase the grid the entities are stored in
+	 * @param a the index of the first entity
+	 * @param b the index of the second entity
+	 * @return the position of the owning cell in the grid
+	 */
+	int getOwningCell(SpatialHash broadphase, int a, int b) {
+		return broadphase.cellAt(Math.max(minX[a], minX[b]), Math.max(minY[a], minY[b]));
+	}
+
+	/**
+	 * Adds an entity to every cell its stored bounds overlap.
+	 * @param broadphase the grid to add to
+	 * @param index the index of the entity
+	 */
+	public void insert(SpatialHash broadphase, int index) {
+		broadphase.insert(index, minX[index], minY[index], maxX[index], maxY[index]);
+	}
+
+	/**
+	 * Finds the entities in the cells an entities stored bounds overlap.
+	 * @param broadphase the grid to search
+	 * @param index the index of the entity
+	 * @param out the array to store the found indexes in, this is cleared first
+	 */
+	public void query(SpatialHash broadphase, int index, IntArray out) {
+		broadphase.query(minX[index], minY[index], maxX[index], maxY[index], out);
+	}
+
+	/**
+	 * @return the amount of entities stored
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Grows the arrays so they can hold an amount of entities.
+	 * @param capacity the amount of entities to hold
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= minX.length)
+			return;
+
+		int newCapacity = Math.max(capacity, minX.length * 2);
+		minX = copyOf(minX, newCapacity);
+		minY = copyOf(minY, newCapacity);
+		maxX = copyOf(maxX, newCapacity);
+		maxY = copyOf(maxY, newCapacity);
+		layers = copyOf(layers, newCapacity);
+		masks = copyOf(masks, newCapacity);
+	}
+
+	/**
+	 * @param array the array to copy
+	 * @param length the length of the copy
+	 * @return a copy of the array with a new length
+	 */
+	private static float[] copyOf(float[] array, int length) {
+		float[] copy = new float[length];
+		System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+		return copy;
+	}
+
+	/**
+	 * @param array the array to copy
+	 * @param length the length of the copy
+	 * @return a copy of the array with a new length
+	 */
+	private static int[] copyOf(int[] array, int length) {
+		int[] copy = new int[length];
+		System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+		return copy;
+	}
+
+}
@@ -0,0 +1,73 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import backend.entities.Player;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Removes entities that are no longer part of the game, so the amount of entities stays the same however long a game lasts.<br>
+ * Entities are removed once they leave the map or outlive their {@link Entity#getTimeToLive() time to live},
+ * and no more entities are added once the game holds {@link #MAX_ENTITIES}.
+ * @author Connor Stewart
+ */
+public class LifetimeManager {
+
+	/** The most entities a game can hold, entities added past this are discarded. */
+	public static final int MAX_ENTITIES = 300;
+
+	/** How far past the edge of the map an entity can go before it is removed, enemies spawn on the edge so this keeps them from being removed as they spawn. */
+	private static final float MAP_MARGIN = 10;
+
+	/** The area entities must overlap to stay in the game. */
+	private final Rectangle area;
+
+	/**
+	 * Creates a lifetime manager for a map.
+	 * @param mapWidth the width of the map
+	 * @param mapHeight the height of the map
+	 */
+	public LifetimeManager(float mapWidth, float mapHeight) {
+		area = new Rectangle(-MAP_MARGIN, -MAP_MARGIN, mapWidth + MAP_MARGIN * 2, mapHeight + MAP_MARGIN * 2);
+	}
+
+	/**
+	 * Ages every entity and queues the ones that have left the map or expired to be removed, the player is never removed.<br>
+	 * Removed entities are {@link Entity#discard() discarded} since they were not destroyed by anything in the game.
+	 * @param entities the entities in the game
+	 * @param commands the buffer to queue removals in
+	 * @param delta the time since the last update
+	 */
+	public void update(Array<Entity> entities, EntityCommandBuffer commands, float delta) {
+		for (int i = 0; i < entities.size; i++) {
+			Entity entity = entities.get(i);
+			entity.age(delta);
+
+			if (!(entity instanceof Player) && !isAlive(entity))
+				commands.discard(i);
+		}
+	}
+
+	/**
+	 * Checks whether another entity can be added to a game.
+	 * @param entities the entities in the game
+	 * @param commands the buffer holding the entities waiting to be added
+	 * @return whether the game, counting entities waiting to be added, holds less than {@link #MAX_ENTITIES}
+	 */
+	public boolean hasRoom(Array<Entity> entities, EntityCommandBuffer commands) {
+		return entities.size + commands.getSpawnCount() < MAX_ENTITIES;
+	}
+
+	/**
+	 * @param entity the entity to check
+	 * @return whether the entity is still on the map and has not outlived its time to live
+	 */
+	private boolean isAlive(Entity entity) {
+		float timeToLive = entity.getTimeToLive();
+		if (timeToLive > 0 && entity.getAge() >= timeToLive)
+			return false;
+
+		return area.overlaps(entity.getBoundingRectangle());
+	}
+
+}
@@ -0,0 +1,99 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+/**
+ * Updates entities that {@link Entity#updatesIndependently() update independently} across the threads of the common fork/join pool.<br>
+ * Independent entities only change their own state, so they can be updated in any order and give the same result as updating them one at a time.
+ * @author Connor Stewart
+ */
+public final class ParallelUpdate {
+
+	/**
+	 * The smallest amount of entities worth splitting across threads, smaller arrays are updated on the calling thread.<br>
+	 * Single player games hold at most {@link LifetimeManager#MAX_ENTITIES}, so only server games with many projectiles are split.
+	 */
+	public static final int MIN_ENTITIES = 512;
+
+	/** The amount of entities each task updates before it stops splitting. */
+	private static final int BATCH_SIZE = 128;
+
+	private ParallelUpdate() {}
+
+	/**
+	 * Updates every independent entity that passes a filter, the remaining entities are left for the caller to update.
+	 * @param entities the entities in the game
+	 * @param delta the time since the last update
+	 * @param include checks whether the entity at an index should be updated, must be safe to call from many threads
+	 */
+	public static void updateIndependent(Array<? extends Entity> entities, float delta, IntPredicate include) {
+		if (entities.size < MIN_ENTITIES)
+			updateRange(entities, delta, include, 0, entities.size);
+		else
+			ForkJoinPool.commonPool().invoke(new UpdateTask(entities, delta, include, 0, entities.size));
+	}
+
+	/**
+	 * Updates the independent entities in a range of the entity array that pass a filter.
+	 * @param entities the entities in the game
+	 * @param delta the time since the last update
+	 * @param include checks whether the entity at an index should be updated
+	 * @param start the first index to update
+	 * @param end the index after the last one to update
+	 */
+	private static void updateRange(Array<? extends Entity> entities, float delta, IntPredicate include, int start, int end) {
+		for (int i = start; i < end; i++) {
+			Entity entity = entities.get(i);
+			if (entity.updatesIndependently() && include.test(i))
+				entity.update(delta);
+		}
+	}
+
+	/**
+	 * Updates a range of the entity array, splitting it in half until it is no bigger than {@link #BATCH_SIZE}.
+	 */
+	@SuppressWarnings("serial") //tasks are never serialized
+	private static class UpdateTask extends RecursiveAction {
+
+		/** The entities in the game. */
+		private final Array<? extends Entity> entities;
+
+		/** The time since the last update. */
+		private final float delta;
+
+		/** Checks whether the entity at an index should be updated. */
+		private final IntPredicate include;
+
+		/** The first index this task updates. */
+		private final int start;
+
+		/** The index after the last one this task updates. */
+		private final int end;
+
+		UpdateTask(Array<? extends Entity> entities, float delta, IntPredicate include, int start, int end) {
+			this.entities = entities;
+			this.delta = delta;
+			this.include = include;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > BATCH_SIZE) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new UpdateTask(entities, delta, include, start, middle), new UpdateTask(entities, delta, include, middle, end));
+				return;
+			}
+
+			updateRange(entities, delta, include, start, end);
+		}
+
+	}
+
+}
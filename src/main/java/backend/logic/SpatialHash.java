@@ -0,0 +1,192 @@
+package backend.logic;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A uniform grid over the game world used to find entities that are close enough to collide.<br>
+ * Entities are inserted using an id, usually their index in the games entity array, and every cell their bounds overlap stores that id.
+ * Anything outside of the world is stored in the nearest edge cell.
+ * @author Connor Stewart
+ */
+public class SpatialHash {
+
+	/** The width and height of each cell. */
+	private final float cellSize;
+
+	/** The amount of cells along the x axis. */
+	private final int columns;
+
+	/** The amount of cells along the y axis. */
+	private final int rows;
+
+	/** The ids stored in each cell. */
+	private final IntArray[] cells;
+
+	/** The indexes of cells that have had ids inserted since the last clear. */
+	private final IntArray usedCells = new IntArray();
+
+	/** The query each id was last returned by, used so an id is only returned once per query. */
+	private int[] stamps = new int[64];
+
+	/** The number of the current query. */
+	private int stamp;
+
+	/**
+	 * Creates a grid covering the game world.
+	 * @param worldWidth the width of the game world
+	 * @param worldHeight the height of the game world
+	 * @param cellSize the width and height of each cell
+	 */
+	public SpatialHash(float worldWidth, float worldHeight, float cellSize) {
+		this.cellSize = cellSize;
+		columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+		rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+
+		cells = new IntArray[columns * rows];
+		for (int i = 0; i < cells.length; i++)
+			cells[i] = new IntArray(false, 8);
+	}
+
+	/**
+	 * Removes all ids from the grid.
+	 */
+	public void clear() {
+		for (int i = 0; i < usedCells.size; i++)
+			cells[usedCells.get(i)].clear();
+
+		usedCells.clear();
+	}
+
+	/**
+	 * Adds an id to every cell its bounds overlap.
+	 * @param id the id to add, must not be negative
+	 * @param bounds the bounds of the entity
+	 */
+	public void insert(int id, Rectangle bounds) {
+		insert(id, bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height);
+	}
+
+	/**
+	 * Adds an id to every cell some bounds overlap.
+	 * @param id the id to add, must not be negative
+	 * @param minX the left edge of the bounds
+	 * @param minY the bottom edge of the bounds
+	 * @param maxX the right edge of the bounds
+	 * @param maxY the top edge of the bounds
+	 */
+	public void insert(int id, float minX, float minY, float maxX, float maxY) {
+		if (id >= stamps.length) {
+			int[] newStamps = new int[Math.max(id + 1, stamps.length * 2)];
+			System.arraycopy(stamps, 0, newStamps, 0, stamps.length);
+			stamps = newStamps;
+		}
+
+		int minColumn = column(minX);
+		int maxColumn = column(maxX);
+		int minRow = row(minY);
+		int maxRow = row(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				int cell = row * columns + column;
+				if (cells[cell].size == 0)
+					usedCells.add(cell);
+
+				cells[cell].add(id);
+			}
+		}
+	}
+
+	/**
+	 * Finds the ids stored in the cells that some bounds overlap, each id is only returned once.
+	 * @param bounds the bounds to search
+	 * @param out the array to store the found ids in, this is cleared first
+	 */
+	public void query(Rectangle bounds, IntArray out) {
+		query(bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, out);
+	}
+
+	/**
+	 * Finds the ids stored in the cells some bounds overlap, each id is only returned once.
+	 * @param minX the left edge of the bounds
+	 * @param minY the bottom edge of the bounds
+	 * @param maxX the right edge of the bounds
+	 * @param maxY the top edge of the bounds
+	 * @param out the array to store the found ids in, this is cleared first
+	 */
+	public void query(float minX, float minY, float maxX, float maxY, IntArray out) {
+		out.clear();
+		stamp++;
+
+		int minColumn = column(minX);
+		int maxColumn = column(maxX);
+		int minRow = row(minY);
+		int maxRow = row(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				IntArray cell = cells[row * columns + column];
+				for (int i = 0; i < cell.size; i++) {
+					int id = cell.get(i);
+					if (stamps[id] != stamp) {
+						stamps[id] = stamp;
+						out.add(id);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the amount of cells that have had ids inserted since the last clear
+	 */
+	int getUsedCellCount() {
+		return usedCells.size;
+	}
+
+	/**
+	 * @param index the index of a used cell, between zero and {@link #getUsedCellCount()}
+	 * @return the ids stored in the cell
+	 */
+	IntArray getUsedCell(int index) {
+		return cells[usedCells.get(index)];
+	}
+
+	/**
+	 * @param index the index of a used cell, between zero and {@link #getUsedCellCount()}
+	 * @return the position of the cell in the grid
+	 */
+	int getUsedCellPosition(int index) {
+		return usedCells.get(index);
+	}
+
+	/**
+	 * Gets the cell a point is in, clamped to the grid.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the position of the cell in the grid
+	 */
+	int cellAt(float x, float y) {
+		return row(y) * columns + column(x);
+	}
+
+	/**
+	 * Gets the column an x coordinate is in, clamped to the grid.
+	 * @param x the x coordinate
+	 * @return the column index
+	 */
+	private int column(float x) {
+		return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+	}
+
+	/**
+	 * Gets the row a y coordinate is in, clamped to the grid.
+	 * @param y the y coordinate
+	 * @return the row index
+	 */
+	private int row(float y) {
+		return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+	}
+
+}
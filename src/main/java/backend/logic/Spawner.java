@@ -7,6 +7,7 @@ import com.badlogic.gdx.math.Rectangle;
 
 import backend.enemies.Asteroid;
 import backend.enemies.Dropship;
+import backend.enemies.EnemyPool;
 import backend.enemies.Laser;
 import backend.enemies.Runner;
 import backend.entities.Entity;
@@ -57,6 +58,38 @@ public class Spawner {
 	/** The game this spawner should add enemies to. */
 	private final SPGame GAME;
 
+	/** The runners spawned by this spawner, reused once they are destroyed. */
+	private final EnemyPool<Runner> runners = new EnemyPool<Runner>() {
+		@Override
+		protected Runner newObject() {
+			return new Runner(GAME);
+		}
+	};
+
+	/** The asteroids spawned by this spawner, reused once they are destroyed. */
+	private final EnemyPool<Asteroid> asteroids = new EnemyPool<Asteroid>() {
+		@Override
+		protected Asteroid newObject() {
+			return new Asteroid(GAME);
+		}
+	};
+
+	/** The dropships spawned by this spawner, reused once they are destroyed. */
+	private final EnemyPool<Dropship> dropships = new EnemyPool<Dropship>() {
+		@Override
+		protected Dropship newObject() {
+			return new Dropship(GAME);
+		}
+	};
+
+	/** The lasers spawned by this spawner, reused once they are destroyed. */
+	private final EnemyPool<Laser> lasers = new EnemyPool<Laser>() {
+		@Override
+		protected Laser newObject() {
+			return new Laser(GAME);
+		}
+	};
+
 	/**
 	 * Creates a new spawner.
 	 * @param spGame the game this spawner should add enemies to
@@ -77,6 +110,23 @@ public class Spawner {
 		spawnPickup(delta);
 	}
 
+	/**
+	 * @return the pool runners are taken from, also used by {@link Dropship}s
+	 */
+	public EnemyPool<Runner> getRunners() {
+		return runners;
+	}
+
+	/**
+	 * Releases the enemies kept for reuse, called once the game has ended.
+	 */
+	public void dispose() {
+		runners.dispose();
+		asteroids.dispose();
+		dropships.dispose();
+		lasers.dispose();
+	}
+
 	/**
 	 * Generates a point for the enemy to spawn on.
 	 * @return the point for the enemy to spawn on
@@ -192,7 +242,7 @@ public class Spawner {
 			laserSpawnTimer = 0;
 			
 			Point spawnLoc = getEnemySpawnLocation();
-			GAME.addEntity(new Laser(spawnLoc.x, spawnLoc.y, GAME));
+			GAME.addEntity(lasers.obtain(spawnLoc.x, spawnLoc.y));
 		}
 		
 	}
@@ -208,7 +258,7 @@ public class Spawner {
 			dropshipSpawnTimer = 0;
 			
 			Point spawnLoc = getEnemySpawnLocation();
-			 GAME.addEntity(new Dropship(spawnLoc.x, spawnLoc.y, GAME));
+			GAME.addEntity(dropships.obtain(spawnLoc.x, spawnLoc.y));
 		}
 		
 	}
@@ -224,7 +274,7 @@ public class Spawner {
 			runnerSpawnTimer = 0;
 
 			Point spawnLoc = getEnemySpawnLocation();
-			GAME.addEntity(new Runner(spawnLoc.x, spawnLoc.y, GAME));
+			GAME.addEntity(runners.obtain(spawnLoc.x, spawnLoc.y));
 		}
 	}
 
@@ -249,7 +299,7 @@ public class Spawner {
 				rotation = 0;
 			}
 			
-			Asteroid toAdd = new Asteroid(spawnLoc.x, spawnLoc.y, GAME);
+			Asteroid toAdd = asteroids.obtain(spawnLoc.x, spawnLoc.y);
 			toAdd.rotate(rotation);
 			
 			 GAME.addEntity(toAdd);
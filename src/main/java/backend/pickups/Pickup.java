@@ -2,7 +2,7 @@ package backend.pickups;
 
 import backend.effects.Effect;
 import backend.entities.Entity;
-import backend.entities.Player;
+import backend.logic.CollisionMatrix;
 import ui.SPGame;
 
 /**
@@ -13,6 +13,9 @@ public abstract class Pickup extends Entity {
 	
 	/** The speed that pickups rotate at. */
 	private static final int ROTATION_SPEED = 20;
+
+	/** The seconds a pickup stays on the map if it is not picked up. */
+	private static final float TIME_TO_LIVE = 30;
 	
 	/** The effect that is triggered when this pickup is picked up. */
 	private final Effect EFFECT;
@@ -29,28 +32,40 @@ public abstract class Pickup extends Entity {
 	Pickup(String imageLocation, Effect effect, SPGame game) {
 		//zero max health and zero speed because a powerup doesn't move and doesn't take damage
 		super(imageLocation, 0, 0);
+		setSizeToImage();
 		this.GAME = game;
 		this.EFFECT = effect;
 	}
 	
 	@Override
 	public void onDestroy() {}
+
+	@Override
+	public float getTimeToLive() {
+		return TIME_TO_LIVE;
+	}
 	
 	@Override
 	public void update(float delta) {
 		//rotate pickups
 		rotate(ROTATION_SPEED * delta);
 	}
-	
+
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-		if (collidedWith instanceof Player) {
-			//activate the effect on collision
-			GAME.addEffect(EFFECT);
-			return true;
-		}
-			
-		return false;
+	public boolean updatesIndependently() {
+		return true;
+	}
+
+	@Override
+	public int getCollisionLayer() {
+		return CollisionMatrix.PICKUP;
+	}
+
+	/**
+	 * Activates this pickups effect, called when the player collides with it.
+	 */
+	public void activate() {
+		GAME.addEffect(EFFECT);
 	}
 	
 }
@@ -15,8 +15,8 @@ public class Ball extends Projectile {
 	/** The size of the laser. */
 	private static final int SIZE = 1;
 	
-	public Ball(float x, float y, float r) {
-		super(x, y, r, DAMAGE, SPEED, SIZE, "projectiles/laser.png", ProjectileType.ENEMEY);
+	public Ball() {
+		super(DAMAGE, SPEED, SIZE, "projectiles/laser.png", ProjectileType.ENEMEY);
 	}
 	
 	@Override
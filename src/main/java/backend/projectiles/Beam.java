@@ -25,13 +25,14 @@ public class Beam extends Projectile {
 	private static final float LASER_SOUND_VOLUME = 0.2f;
 
 	/**
-	 * Create a laser at the x and y location with the rotation specified.
-	 * @param x the x coordinate for the laser
-	 * @param y the y coordinate of the laser
-	 * @param r the rotation to start the laser at
+	 * Create a laser, it is placed when it is fired from a {@link ProjectilePool}.
 	 */
-	public Beam(float x, float y, float r) {
-		super(x, y, r, DAMAGE, SPEED, SIZE, "projectiles/laser.png", ProjectileType.PLAYER);
+	public Beam() {
+		super(DAMAGE, SPEED, SIZE, "projectiles/laser.png", ProjectileType.PLAYER);
+	}
+
+	@Override
+	protected void onFire() {
 		LASER_SOUND.setVolume(LASER_SOUND.play(), LASER_SOUND_VOLUME);
 	}
 
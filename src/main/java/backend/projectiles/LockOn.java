@@ -26,13 +26,19 @@ public class LockOn extends Projectile {
 	/** The max width this projectile can see. */
 	private static final int VIEW_WIDTH = 25;
 
+	/** The seconds this projectile lasts, it can circle an enemy without leaving the map. */
+	private static final float TIME_TO_LIVE = 8;
+
 	private SPGame screen;
 
 	private Polygon vision;
 
-	public LockOn(float x, float y, float rotation, SPGame screen) {
-		super(x, y, rotation, DAMAGE, SPEED, SIZE, "projectiles/autoAim.png", ProjectileType.PLAYER);
-		vision = new Polygon();
+	/** The corners of the area this projectile can see, reused each update. */
+	private final float[] vertices = new float[6];
+
+	public LockOn(SPGame screen) {
+		super(DAMAGE, SPEED, SIZE, "projectiles/autoAim.png", ProjectileType.PLAYER);
+		vision = new Polygon(vertices);
 		this.screen = screen;
 	}
 	
@@ -41,9 +47,12 @@ public class LockOn extends Projectile {
 		float x = getCenterX();
 		float y = getCenterY();
 		
-		float[] vertices = {x, y, 
-				x - VIEW_WIDTH, y + VIEW_DISTANCE,
-				x + VIEW_WIDTH, y + VIEW_DISTANCE};
+		vertices[0] = x;
+		vertices[1] = y;
+		vertices[2] = x - VIEW_WIDTH;
+		vertices[3] = y + VIEW_DISTANCE;
+		vertices[4] = x + VIEW_WIDTH;
+		vertices[5] = y + VIEW_DISTANCE;
 		
 		vision.setVertices(vertices);
 		vision.setOrigin(x, y);
@@ -56,9 +65,19 @@ public class LockOn extends Projectile {
 			moveForward(speed * delta);
 	}
 
+	@Override
+	public boolean updatesIndependently() {
+		return false; //looks for enemies to chase
+	}
+
 	@Override
 	public void onDestroy() {}
 
+	@Override
+	public float getTimeToLive() {
+		return TIME_TO_LIVE;
+	}
+
 	/**
 	 * Whether this projectile can see another entity.
 	 * @param entity the entity to check
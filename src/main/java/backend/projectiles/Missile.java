@@ -25,13 +25,14 @@ public class Missile extends Projectile {
 	private static final float MISSILE_SOUND_VOLUME = 0.2f;
 
 	/**
-	 * Create a missile at the x and y location with the rotation specified.
-	 * @param x the x coordinate for the missile
-	 * @param y the y coordinate of the missile
-	 * @param r the rotation to start the missile at
+	 * Create a missile, it is placed when it is fired from a {@link ProjectilePool}.
 	 */
-	public Missile(float x, float y, float r) {
-		super(x, y, r, DAMAGE, SPEED, SIZE, "projectiles/missile.png", ProjectileType.PLAYER);
+	public Missile() {
+		super(DAMAGE, SPEED, SIZE, "projectiles/missile.png", ProjectileType.PLAYER);
+	}
+
+	@Override
+	protected void onFire() {
 		missileSound.setVolume(missileSound.play(), MISSILE_SOUND_VOLUME);
 	}
 	
@@ -1,13 +1,11 @@
 package backend.projectiles;
 
-import backend.enemies.Asteroid;
-import backend.enemies.Enemy;
 import backend.entities.Entity;
-import backend.entities.Player;
-import com.badlogic.gdx.Gdx;
+import backend.logic.CollisionMatrix;
 
 /**
- * Represents something the player can fire.
+ * Represents something the player can fire.<br>
+ * Projectiles are reused, they are taken from a {@link ProjectilePool} when fired and returned to it when destroyed.
  * @author Connor Stewart
  */
 public abstract class Projectile extends Entity {
@@ -31,46 +29,66 @@ public abstract class Projectile extends Entity {
 	private float oldy;
 	
 	/**
-	 * Creates a bullet at an x/y location.
-	 * @param x the x coordinate
-	 * @param y the y coordinate
-	 * @param rotation the rotation
+	 * Creates a bullet, it is placed when it is taken from a pool.
+	 * @param damage the amount of damage the projectile does
+	 * @param speed the speed of the projectile
 	 * @param size the size of the image
 	 * @param imageLocation the location of this projectiles image
 	 * @param type the type of projectile
 	 */
-	Projectile(float x, float y, float rotation, double damage, int speed, int size, String imageLocation, ProjectileType type) {
+	Projectile(double damage, int speed, int size, String imageLocation, ProjectileType type) {
 		super(imageLocation, 0, speed); //zero because projectiles do not have health
 
 		this.type = type;
 		this.damage = damage;
 		
 		setSize(size, size);
-		setPosition(x - (getWidth() / 2), y - (getHeight() / 2)); //center the bullet in the middle of the ship
 		setOriginCenter(); //set the origin for rotation
+	}
+
+	/**
+	 * Places this projectile in front of whatever fired it, called each time it is taken from a pool.
+	 * @param x the x coordinate of the center of whatever fired the projectile
+	 * @param y the y coordinate of the center of whatever fired the projectile
+	 * @param rotation the rotation of whatever fired the projectile
+	 */
+	void init(float x, float y, float rotation) {
+		setPosition(x - (getWidth() / 2), y - (getHeight() / 2)); //center the bullet in the middle of the ship
 		setRotation(rotation + 90); //add the 90 because of the way the sprite is drawn
 		moveForward(2.5); //move the bullet in front of the ship
+		onFire();
 	}
 
+	/**
+	 * Called each time this projectile is fired.
+	 */
+	protected void onFire() {}
+
+	/**
+	 * Clears the state this projectile gained while it was in the game, called when it is returned to its pool.
+	 */
 	@Override
-	public boolean onCollision(Entity collidedWith) {
-		if (collidedWith instanceof Enemy) //destroy the projectile if it collides with an enemy
-			if (type.equals(ProjectileType.PLAYER)) //if the projectile was fired by the player
-				return true;
-		
-		if (collidedWith instanceof Player) //destroy the projectile if it collides with a player
-			if (type.equals(ProjectileType.ENEMEY)) //if the projectile was fired by an enemy
-				return true;
-		
-		if (collidedWith instanceof Asteroid)
-			return type.equals(ProjectileType.ENEMEY);
-		
-		return false;
+	public void reset() {
+		super.reset();
+		playerID = 0;
+		timeSinceLastValidation = 0;
+		oldx = 0;
+		oldy = 0;
 	}
-	
+
+	@Override
+	public int getCollisionLayer() {
+		return type == ProjectileType.PLAYER ? CollisionMatrix.PLAYER_PROJECTILE : CollisionMatrix.ENEMY_PROJECTILE;
+	}
+
 	@Override
 	public void update(float delta) {
-		moveForward(Gdx.graphics.getDeltaTime() * speed);
+		moveForward(delta * speed);
+	}
+
+	@Override
+	public boolean updatesIndependently() {
+		return true;
 	}
 	
 	/**
@@ -0,0 +1,24 @@
+package backend.projectiles;
+
+import backend.entities.EntityPool;
+
+/**
+ * A pool of projectiles, removed projectiles are returned here so firing a weapon does not create new objects.
+ * @author Connor Stewart
+ */
+public abstract class ProjectilePool<T extends Projectile> extends EntityPool<T> {
+
+	/**
+	 * Takes a projectile from the pool, or creates one if the pool is empty, and places it in front of whatever fired it.
+	 * @param x the x coordinate of the center of whatever fired the projectile
+	 * @param y the y coordinate of the center of whatever fired the projectile
+	 * @param rotation the rotation of whatever fired the projectile
+	 * @return the projectile
+	 */
+	public T obtain(float x, float y, float rotation) {
+		T projectile = obtain();
+		projectile.init(x, y, rotation);
+		return projectile;
+	}
+
+}
@@ -2,6 +2,7 @@ package backend.weapons;
 
 import backend.projectiles.LockOn;
 import backend.projectiles.Projectile;
+import backend.projectiles.ProjectilePool;
 import ui.SPGame;
 
 /**
@@ -12,6 +13,14 @@ public class PlayerAutoWeapon extends Weapon {
 
 	private final SPGame screen;
 
+	/** The projectiles fired by this weapon. */
+	private final ProjectilePool<LockOn> projectiles = new ProjectilePool<LockOn>() {
+		@Override
+		protected LockOn newObject() {
+			return new LockOn(screen);
+		}
+	};
+
 	public PlayerAutoWeapon(SPGame screen) {
 		super(0.05f);
 		this.screen = screen;
@@ -19,7 +28,12 @@ public class PlayerAutoWeapon extends Weapon {
 
 	@Override
 	protected Projectile getProjectile(float x, float y, float r) {
-		return new LockOn(x, y, r, screen);
+		return projectiles.obtain(x, y, r);
+	}
+
+	@Override
+	public void dispose() {
+		projectiles.dispose();
 	}
 
 }
@@ -2,6 +2,7 @@ package backend.weapons;
 
 import backend.projectiles.Missile;
 import backend.projectiles.Projectile;
+import backend.projectiles.ProjectilePool;
 
 /**
  * This weapon is used by the players right fire in single player.
@@ -9,13 +10,26 @@ import backend.projectiles.Projectile;
  */
 public class PlayerHeavyWeapon extends Weapon {
 
+	/** The missiles fired by this weapon. */
+	private final ProjectilePool<Missile> missiles = new ProjectilePool<Missile>() {
+		@Override
+		protected Missile newObject() {
+			return new Missile();
+		}
+	};
+
 	public PlayerHeavyWeapon() {
 		super(1.5f);
 	}
 
 	@Override
 	protected Projectile getProjectile(float x, float y, float r) {
-		return new Missile(x, y, r);
+		return missiles.obtain(x, y, r);
+	}
+
+	@Override
+	public void dispose() {
+		missiles.dispose();
 	}
 
 }
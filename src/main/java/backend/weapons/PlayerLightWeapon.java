@@ -2,6 +2,7 @@ package backend.weapons;
 
 import backend.projectiles.Beam;
 import backend.projectiles.Projectile;
+import backend.projectiles.ProjectilePool;
 
 /**
  * This weapon is used by the players left fire in single player.
@@ -9,13 +10,26 @@ import backend.projectiles.Projectile;
  */
 public class PlayerLightWeapon extends Weapon {
 
+	/** The lasers fired by this weapon. */
+	private final ProjectilePool<Beam> beams = new ProjectilePool<Beam>() {
+		@Override
+		protected Beam newObject() {
+			return new Beam();
+		}
+	};
+
 	public PlayerLightWeapon() {
 		super(0.3f);
 	}
 
 	@Override
 	protected Projectile getProjectile(float x, float y, float r) {
-		return new Beam(x, y, r);
+		return beams.obtain(x, y, r);
+	}
+
+	@Override
+	public void dispose() {
+		beams.dispose();
 	}
 
 }
@@ -60,7 +60,7 @@ public abstract class Weapon {
 	}
 	
 	/**
-	 * This method should return the projectile that is fired by this weapon.
+	 * This method should return the projectile that is fired by this weapon, taken from a pool so firing does not create objects.
 	 * @param x the projectile's x position
 	 * @param y the projectile's y position
 	 * @param r the projectile's rotation
@@ -68,4 +68,9 @@ public abstract class Weapon {
 	 */
 	protected abstract Projectile getProjectile(float r, float y, float x);
 
+	/**
+	 * Releases the projectiles this weapon keeps for reuse, called once the weapon will not be fired again.
+	 */
+	public abstract void dispose();
+
 }
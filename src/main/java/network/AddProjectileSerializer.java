@@ -0,0 +1,49 @@
+package network;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import network.Network.AddProjectile;
+
+/**
+ * This class writes {@link AddProjectile}s without reflection, one is sent for every projectile fired.<br>
+ * The spawn position is stored as 16 bit fractions of the game area and the rotation as a 16 bit fraction of a turn.
+ * The speed and server time are kept as full floats since clients work out where the projectile is from them for its whole flight.
+ * @author Connor Stewart
+ */
+class AddProjectileSerializer extends Serializer<AddProjectile> {
+
+	/** How far outside of the game area a projectile can be fired from, projectiles are placed in front of the player so can start just outside of it. */
+	private static final float SPAWN_MARGIN = 10;
+
+	/** The largest value a 16 bit unsigned coordinate can store. */
+	private static final int COORDINATE_STEPS = 0xFFFF;
+
+	@Override
+	public void write(Kryo kryo, Output output, AddProjectile projectile) {
+		output.writeVarInt(projectile.playerID, true);
+		output.writeVarInt(projectile.id, true);
+		output.writeString(projectile.type);
+		output.writeShort(Quantization.quantize(projectile.x, -SPAWN_MARGIN, Network.GAME_WIDTH + SPAWN_MARGIN, COORDINATE_STEPS));
+		output.writeShort(Quantization.quantize(projectile.y, -SPAWN_MARGIN, Network.GAME_HEIGHT + SPAWN_MARGIN, COORDINATE_STEPS));
+		output.writeShort(Quantization.quantizeRotation(projectile.rotation));
+		output.writeFloat(projectile.speed);
+		output.writeFloat(projectile.time);
+	}
+
+	@Override
+	public AddProjectile read(Kryo kryo, Input input, Class<AddProjectile> type) {
+		AddProjectile projectile = new AddProjectile();
+		projectile.playerID = input.readVarInt(true);
+		projectile.id = input.readVarInt(true);
+		projectile.type = input.readString();
+		projectile.x = Quantization.dequantize(input.readShortUnsigned(), -SPAWN_MARGIN, Network.GAME_WIDTH + SPAWN_MARGIN, COORDINATE_STEPS);
+		projectile.y = Quantization.dequantize(input.readShortUnsigned(), -SPAWN_MARGIN, Network.GAME_HEIGHT + SPAWN_MARGIN, COORDINATE_STEPS);
+		projectile.rotation = Quantization.dequantizeRotation(input.readShortUnsigned());
+		projectile.speed = input.readFloat();
+		projectile.time = input.readFloat();
+		return projectile;
+	}
+
+}
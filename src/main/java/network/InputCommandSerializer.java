@@ -0,0 +1,36 @@
+package network;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import network.Network.InputCommand;
+
+/**
+ * This class writes {@link InputCommand}s without reflection, they are sent by every client every frame.<br>
+ * Sequence numbers are stored as variable length integers, the input bits as a single byte and the rotation as a 16 bit fraction of a turn.
+ * The player is not sent, the server applies a command to the player of the client that sent it.
+ * The frame time is not sent since the server moves players by its own step time, it is only kept by the client to replay the command.
+ * @author Connor Stewart
+ */
+class InputCommandSerializer extends Serializer<InputCommand> {
+
+	@Override
+	public void write(Kryo kryo, Output output, InputCommand command) {
+		output.writeVarInt(command.sequence, true);
+		output.writeByte(command.buttons);
+		output.writeShort(Quantization.quantizeRotation(command.rotation));
+		output.writeVarInt(command.snapshotAck, true);
+	}
+
+	@Override
+	public InputCommand read(Kryo kryo, Input input, Class<InputCommand> type) {
+		InputCommand command = new InputCommand();
+		command.sequence = input.readVarInt(true);
+		command.buttons = input.readByteUnsigned();
+		command.rotation = Quantization.dequantizeRotation(input.readShortUnsigned());
+		command.snapshotAck = input.readVarInt(true);
+		return command;
+	}
+
+}
@@ -22,6 +22,18 @@ public class Network {
 
 	/** The UDP port the game uses. */
 	public static final int UDP_PORT = 2344;
+
+	/** The size of the buffer used to serialize and deserialize a single message, large enough to fit a world snapshot. */
+	public static final int OBJECT_BUFFER_SIZE = 16384;
+
+	/** The size of the servers per connection write buffer. */
+	public static final int SERVER_WRITE_BUFFER_SIZE = 65536;
+
+	/** The size of a clients write buffer. */
+	public static final int CLIENT_WRITE_BUFFER_SIZE = 8192;
+
+	/** The amount of recent snapshots kept by the server and clients, a client that has not acknowledged any of them is sent a full snapshot. */
+	public static final int SNAPSHOT_HISTORY = 32;
 	
 	/**
 	 * This methods registers objects that are going to be sent over the network.
@@ -30,6 +42,9 @@ public class Network {
 	public static void register (EndPoint endPoint) {
 		Kryo kryo = endPoint.getKryo();
 		kryo.register(String[].class);
+		kryo.register(byte[].class);
+		kryo.register(int[].class);
+		kryo.register(float[].class);
 		kryo.register(ArrayList.class);
 		
 		kryo.register(AddRoom.class);
@@ -38,15 +53,12 @@ public class Network {
 		kryo.register(JoinRoom.class);
 		kryo.register(UpdateNickname.class);
 		kryo.register(StartGame.class);
-		kryo.register(KeyInput.class);
-		kryo.register(MouseInput.class);
+		kryo.register(InputCommand.class, new InputCommandSerializer());
 		kryo.register(AddPlayer.class);
 		kryo.register(RemovePlayer.class);
 		kryo.register(RemoveProjectile.class);
-		kryo.register(UpdateProjectile.class);
-		kryo.register(UpdatePlayer.class);
-		kryo.register(MouseMoved.class);
-		kryo.register(AddProjectile.class);
+		kryo.register(WorldSnapshot.class, new WorldSnapshotSerializer());
+		kryo.register(AddProjectile.class, new AddProjectileSerializer());
 		kryo.register(JoinLobby.class);
 		kryo.register(RequestGameStart.class);
 		kryo.register(LeaveLobby.class);
@@ -55,6 +67,7 @@ public class Network {
 		kryo.register(ErrorMessage.class);
 		kryo.register(ErrorType.class);
 		kryo.register(PlayerWon.class);
+		kryo.register(GameEnded.class);
 		kryo.register(UploadScore.class);
 		kryo.register(ScoreUpdate.class);
 		kryo.register(ConfirmationMessage.class);
@@ -96,30 +109,18 @@ public class Network {
 		public boolean leader;
 	}
 
-	/** A notification that the client has pressed a key. */
-	public static class KeyInput {
-		/** The players ID. */
-		public int id;
-		/** The code of the pressed key. */
-		public int keyCode;
-	}
-
-	/** A notification that the client has pressed a mouse button. */
-	public static class MouseInput {
-		/** The players ID. */
-		public int id;
-		/** The code of the pressed mouse button. */
-		public int buttonCode;
-	}
-
-	/** A notification that the client has moved their mouse. */
-	public static class MouseMoved {
-		/** The players ID. */
-		public int id;
-		/** The mouses x coordinate within the game. */
-		public float x;
-		/** The mouses y coordinate within the game. */
-		public float y;
+	/** The input of a client for a single frame, sent every frame so a lost command does not need to be resent. */
+	public static class InputCommand {
+		/** Increases by one every command, used by the server to apply commands in order. */
+		public int sequence;
+		/** The held keys and mouse buttons, using the input bits in {@link backend.entities.MultiplayerPlayer}. */
+		public int buttons;
+		/** The rotation the player is aiming at. */
+		public float rotation;
+		/** The length of the frame in seconds, used by the client to replay the command when reconciling. Not sent to the server, which moves players by its own step time. */
+		public float delta;
+		/** The frame of the newest snapshot the client has applied, the server encodes snapshots against it. */
+		public int snapshotAck;
 	}
 
 	/** The client is requesting a list of scores. */
@@ -156,6 +157,9 @@ public class Network {
 		public int id;
 	}
 
+	/** A notification that a game has been stopped by the server without a winner. */
+	public static class GameEnded {}
+
 	/** An update containing the names of players in a lobby. */
 	public static class LobbyPlayers {
 		/** A list of names of the players in a lobby. */
@@ -171,7 +175,7 @@ public class Network {
 		public int id;
 	}
 
-	/** An update telling clients to add a projectile to their game on client-side. */
+	/** An update telling clients to add a projectile to their game on client-side, sent over TCP since clients simulate the projectile from it alone. */
 	public static class AddProjectile {
 		/** The ID of the player who fired the projectile. */
 		public int playerID;
@@ -179,6 +183,16 @@ public class Network {
 		public int id;
 		/** The type of projectile being fired. */
 		public String type;
+		/** The x coordinate the projectile was fired from. */
+		public float x;
+		/** The y coordinate the projectile was fired from. */
+		public float y;
+		/** The rotation of the projectile. */
+		public float rotation;
+		/** The distance the projectile moves per second. */
+		public float speed;
+		/** The server time the projectile was at its spawn position, used by clients to work out where it is. */
+		public float time;
 	}
 
 	/** An update telling clients to remove a player from their game on client-side. */
@@ -187,38 +201,43 @@ public class Network {
 		public int id;
 	}
 
-	/** An update telling clients to remove a projectile from their game on client-side. */
+	/** An update telling clients to remove a projectile from their game on client-side, sent over TCP so projectiles that hit a player are never left flying. */
 	public static class RemoveProjectile {
 		/** The projectiles multiplayer ID. */
 		public int id;
 	}
 
-	/** This update is used to describe the position of a projectile. */
-	public static class UpdateProjectile {
-		/** The multiplayer ID of the projectile that should be updated. */
-		public int id;
-		/** The projectiles x coordinate. */
-		public float x;
-		/** The projectiles y coordinate. */
-		public float y;
-		/** The projectiles rotation. */
-		public double r;
-	}
-
-	/** This update is used to describe the attributes of a player. */
-	public static class UpdatePlayer {
-		/** The multiplayer ID of the player that should be updated. */
-		public int id;
-		/** The players x coordinate. */
-		public float x;
-		/** The players y coordinate. */
-		public float y;
-		/** The players rotation. */
-		public double r;
-		/** The players health. */
-		public double health;
-		/** The amount of kills the player has. */
-		public int kills;
+	/**
+	 * This update describes every player and projectile in a game, it is sent at the servers snapshot rate.<br>
+	 * Entities are stored in packed arrays, the first playerCount entries are players and the rest are projectiles.
+	 */
+	public static class WorldSnapshot {
+		/** The server step this snapshot was taken on, used to ignore snapshots that arrive out of order. */
+		public int frame;
+		/** The server time in seconds this snapshot was taken at, used to interpolate between snapshots. */
+		public float time;
+		/** The frame of the snapshot this is a delta of, or zero if this is a full snapshot. */
+		public int baseFrame;
+		/** For a delta, the {@link SnapshotDelta} bits of the fields that changed for each entity. */
+		public byte[] changes;
+		/** For a delta, the IDs of entities that have been removed since the base snapshot. */
+		public int[] removed;
+		/** The amount of players in this snapshot. */
+		public int playerCount;
+		/** The multiplayer IDs of the entities. */
+		public int[] ids;
+		/** The x and y coordinates of the entities, two values per entity. */
+		public float[] positions;
+		/** The rotations of the entities. */
+		public float[] rotations;
+		/** The health of each player. */
+		public float[] health;
+		/** The amount of kills each player has. */
+		public int[] kills;
+		/** The x and y velocity of each player, two values per player. */
+		public float[] velocities;
+		/** The sequence number of the last input command the server applied to each player. */
+		public int[] inputSequences;
 	}
 
     /** This class is used to send error messages to clients. */
@@ -0,0 +1,60 @@
+package network;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * This class converts floats to and from a whole number of steps within a range, used by the serializers to store values in fewer bytes than a float.
+ * @author Connor Stewart
+ */
+final class Quantization {
+
+	/** The amount of steps in a full turn, so a rotation fits in 16 bits. */
+	private static final int ROTATION_STEPS = 0x10000;
+
+	private Quantization() {}
+
+	/**
+	 * Converts a value to a whole number of steps between a minimum and maximum, values outside of the range are clamped.
+	 * @param value the value to convert
+	 * @param min the smallest value
+	 * @param max the largest value
+	 * @param steps the amount of steps between the smallest and largest value
+	 * @return the amount of steps the value is above the minimum
+	 */
+	static int quantize(float value, float min, float max, int steps) {
+		float fraction = (MathUtils.clamp(value, min, max) - min) / (max - min);
+		return MathUtils.round(fraction * steps);
+	}
+
+	/**
+	 * Converts a value written by {@link #quantize(float, float, float, int)} back to a float.
+	 * @param quantized the amount of steps above the minimum
+	 * @param min the smallest value
+	 * @param max the largest value
+	 * @param steps the amount of steps between the smallest and largest value
+	 * @return the value
+	 */
+	static float dequantize(int quantized, float min, float max, int steps) {
+		return min + (max - min) * quantized / steps;
+	}
+
+	/**
+	 * Converts a rotation to a 16 bit fraction of a full turn, rotations are wrapped so any angle can be stored.
+	 * @param degrees the rotation in degrees
+	 * @return the rotation as an unsigned 16 bit value
+	 */
+	static int quantizeRotation(float degrees) {
+		float turns = degrees / 360 - MathUtils.floor(degrees / 360);
+		return MathUtils.round(turns * ROTATION_STEPS) & (ROTATION_STEPS - 1);
+	}
+
+	/**
+	 * Converts a rotation written by {@link #quantizeRotation(float)} back to degrees.
+	 * @param quantized the rotation as an unsigned 16 bit value
+	 * @return the rotation in degrees, between 0 and 360
+	 */
+	static float dequantizeRotation(int quantized) {
+		return 360f * quantized / ROTATION_STEPS;
+	}
+
+}
@@ -0,0 +1,326 @@
+package network;
+
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntSet;
+import network.Network.WorldSnapshot;
+
+/**
+ * This class encodes a {@link WorldSnapshot} as the differences from an older snapshot the client already has, and rebuilds the full snapshot from them.<br>
+ * Entities that have not changed are left out, and only the groups of fields that changed are sent for the rest.
+ * Entities that were removed since the older snapshot are listed by ID so the client does not keep them.
+ * @author Connor Stewart
+ */
+public final class SnapshotDelta {
+
+	/** The bit set when an entities position has changed. */
+	public static final byte POSITION = 1;
+
+	/** The bit set when an entities rotation has changed. */
+	public static final byte ROTATION = 1 << 1;
+
+	/** The bit set when a players health or kills have changed. */
+	public static final byte STATS = 1 << 2;
+
+	/** The bit set when a players velocity or last applied input have changed. */
+	public static final byte MOTION = 1 << 3;
+
+	/** Every field of an entity, used for entities that are not in the older snapshot. */
+	public static final byte ALL = POSITION | ROTATION | STATS | MOTION;
+
+	private SnapshotDelta() {}
+
+	/**
+	 * Encodes a snapshot as the differences from an older snapshot.
+	 * @param base the older snapshot the client has
+	 * @param current the full snapshot to encode
+	 * @return a delta snapshot which can be rebuilt with {@link #decode(WorldSnapshot, WorldSnapshot)}
+	 */
+	public static WorldSnapshot encode(WorldSnapshot base, WorldSnapshot current) {
+		IntIntMap baseIndexes = indexByID(base);
+		int entityCount = current.ids.length;
+
+		//work out which fields of each entity have changed
+		byte[] changes = new byte[entityCount];
+		int changedCount = 0, playerCount = 0, positionCount = 0, rotationCount = 0, statsCount = 0, motionCount = 0;
+
+		for (int i = 0; i < entityCount; i++) {
+			int b = baseIndexes.get(current.ids[i], -1);
+			boolean isPlayer = i < current.playerCount;
+			byte changed = b < 0 ? ALL : compare(base, b, current, i, isPlayer);
+
+			if (!isPlayer)
+				changed &= POSITION | ROTATION;
+
+			changes[i] = changed;
+
+			if (changed != 0) {
+				changedCount++;
+				if (isPlayer) playerCount++;
+				if ((changed & POSITION) != 0) positionCount++;
+				if ((changed & ROTATION) != 0) rotationCount++;
+				if ((changed & STATS) != 0) statsCount++;
+				if ((changed & MOTION) != 0) motionCount++;
+			}
+		}
+
+		WorldSnapshot delta = new WorldSnapshot();
+		delta.frame = current.frame;
+		delta.time = current.time;
+		delta.baseFrame = base.frame;
+		delta.playerCount = playerCount;
+		delta.ids = new int[changedCount];
+		delta.changes = new byte[changedCount];
+		delta.positions = new float[positionCount * 2];
+		delta.rotations = new float[rotationCount];
+		delta.health = new float[statsCount];
+		delta.kills = new int[statsCount];
+		delta.velocities = new float[motionCount * 2];
+		delta.inputSequences = new int[motionCount];
+		delta.removed = removedIDs(base, current);
+
+		int entity = 0, position = 0, rotation = 0, stats = 0, motion = 0;
+
+		for (int i = 0; i < entityCount; i++) {
+			byte changed = changes[i];
+			if (changed == 0)
+				continue;
+
+			delta.ids[entity] = current.ids[i];
+			delta.changes[entity++] = changed;
+
+			if ((changed & POSITION) != 0) {
+				delta.positions[position * 2] = current.positions[i * 2];
+				delta.positions[position++ * 2 + 1] = current.positions[i * 2 + 1];
+			}
+
+			if ((changed & ROTATION) != 0)
+				delta.rotations[rotation++] = current.rotations[i];
+
+			if ((changed & STATS) != 0) {
+				delta.health[stats] = current.health[i];
+				delta.kills[stats++] = current.kills[i];
+			}
+
+			if ((changed & MOTION) != 0) {
+				delta.velocities[motion * 2] = current.velocities[i * 2];
+				delta.velocities[motion * 2 + 1] = current.velocities[i * 2 + 1];
+				delta.inputSequences[motion++] = current.inputSequences[i];
+			}
+		}
+
+		return delta;
+	}
+
+	/**
+	 * Rebuilds a full snapshot from a delta and the snapshot it was encoded against.
+	 * @param base the snapshot the delta was encoded against
+	 * @param delta the delta snapshot
+	 * @return the full snapshot, players first
+	 */
+	public static WorldSnapshot decode(WorldSnapshot base, WorldSnapshot delta) {
+		IntSet removed = new IntSet(delta.removed.length);
+		for (int id : delta.removed)
+			removed.add(id);
+
+		//find where each changed entities fields are stored in the delta
+		int changedCount = delta.ids.length;
+		int[] positionIndexes = new int[changedCount];
+		int[] rotationIndexes = new int[changedCount];
+		int[] statsIndexes = new int[changedCount];
+		int[] motionIndexes = new int[changedCount];
+		int position = 0, rotation = 0, stats = 0, motion = 0;
+
+		IntIntMap deltaIndexes = new IntIntMap(changedCount);
+		for (int i = 0; i < changedCount; i++) {
+			byte changed = delta.changes[i];
+			positionIndexes[i] = (changed & POSITION) != 0 ? position++ : -1;
+			rotationIndexes[i] = (changed & ROTATION) != 0 ? rotation++ : -1;
+			statsIndexes[i] = (changed & STATS) != 0 ? stats++ : -1;
+			motionIndexes[i] = (changed & MOTION) != 0 ? motion++ : -1;
+			deltaIndexes.put(delta.ids[i], i);
+		}
+
+		//count the entities in the new snapshot
+		IntIntMap baseIndexes = indexByID(base);
+		int playerCount = 0, entityCount = 0;
+
+		for (int i = 0; i < base.ids.length; i++) {
+			if (!removed.contains(base.ids[i])) {
+				entityCount++;
+				if (i < base.playerCount) playerCount++;
+			}
+		}
+
+		for (int i = 0; i < changedCount; i++) {
+			if (!baseIndexes.containsKey(delta.ids[i])) {
+				entityCount++;
+				if (i < delta.playerCount) playerCount++;
+			}
+		}
+
+		WorldSnapshot snapshot = new WorldSnapshot();
+		snapshot.frame = delta.frame;
+		snapshot.time = delta.time;
+		snapshot.playerCount = playerCount;
+		snapshot.ids = new int[entityCount];
+		snapshot.positions = new float[entityCount * 2];
+		snapshot.rotations = new float[entityCount];
+		snapshot.health = new float[playerCount];
+		snapshot.kills = new int[playerCount];
+		snapshot.velocities = new float[playerCount * 2];
+		snapshot.inputSequences = new int[playerCount];
+
+		//copy the players then the projectiles, entities in the base keep their order and new entities are added after them
+		int index = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			boolean players = pass == 0;
+
+			for (int b = players ? 0 : base.playerCount; b < (players ? base.playerCount : base.ids.length); b++) {
+				int id = base.ids[b];
+				if (removed.contains(id))
+					continue;
+
+				copy(base, b, snapshot, index, players);
+
+				int d = deltaIndexes.get(id, -1);
+				if (d >= 0)
+					apply(delta, d, positionIndexes[d], rotationIndexes[d], statsIndexes[d], motionIndexes[d], snapshot, index, players);
+
+				index++;
+			}
+
+			for (int d = players ? 0 : delta.playerCount; d < (players ? delta.playerCount : changedCount); d++) {
+				if (baseIndexes.containsKey(delta.ids[d]))
+					continue;
+
+				snapshot.ids[index] = delta.ids[d];
+				apply(delta, d, positionIndexes[d], rotationIndexes[d], statsIndexes[d], motionIndexes[d], snapshot, index, players);
+				index++;
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Compares the fields of an entity in two snapshots.
+	 * @param base the older snapshot
+	 * @param b the entities index in the older snapshot
+	 * @param current the newer snapshot
+	 * @param i the entities index in the newer snapshot
+	 * @param isPlayer true if the entity is a player
+	 * @return the bits of the field groups that have changed
+	 */
+	private static byte compare(WorldSnapshot base, int b, WorldSnapshot current, int i, boolean isPlayer) {
+		byte changed = 0;
+
+		if (base.positions[b * 2] != current.positions[i * 2] || base.positions[b * 2 + 1] != current.positions[i * 2 + 1])
+			changed |= POSITION;
+
+		if (base.rotations[b] != current.rotations[i])
+			changed |= ROTATION;
+
+		if (isPlayer) {
+			if (base.health[b] != current.health[i] || base.kills[b] != current.kills[i])
+				changed |= STATS;
+
+			if (base.velocities[b * 2] != current.velocities[i * 2] || base.velocities[b * 2 + 1] != current.velocities[i * 2 + 1]
+					|| base.inputSequences[b] != current.inputSequences[i])
+				changed |= MOTION;
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Copies an entity from a full snapshot to another.
+	 * @param from the snapshot to copy from
+	 * @param f the entities index in the snapshot being copied from
+	 * @param to the snapshot to copy to
+	 * @param t the entities index in the snapshot being copied to
+	 * @param isPlayer true if the entity is a player
+	 */
+	private static void copy(WorldSnapshot from, int f, WorldSnapshot to, int t, boolean isPlayer) {
+		to.ids[t] = from.ids[f];
+		to.positions[t * 2] = from.positions[f * 2];
+		to.positions[t * 2 + 1] = from.positions[f * 2 + 1];
+		to.rotations[t] = from.rotations[f];
+
+		if (isPlayer) {
+			to.health[t] = from.health[f];
+			to.kills[t] = from.kills[f];
+			to.velocities[t * 2] = from.velocities[f * 2];
+			to.velocities[t * 2 + 1] = from.velocities[f * 2 + 1];
+			to.inputSequences[t] = from.inputSequences[f];
+		}
+	}
+
+	/**
+	 * Overwrites the fields of an entity in a full snapshot with the fields that changed in a delta.
+	 * @param delta the delta snapshot
+	 * @param d the entities index in the delta
+	 * @param position the index of the entities position in the delta, or -1 if it has not changed
+	 * @param rotation the index of the entities rotation in the delta, or -1 if it has not changed
+	 * @param stats the index of the players stats in the delta, or -1 if they have not changed
+	 * @param motion the index of the players motion in the delta, or -1 if it has not changed
+	 * @param to the full snapshot
+	 * @param t the entities index in the full snapshot
+	 * @param isPlayer true if the entity is a player
+	 */
+	private static void apply(WorldSnapshot delta, int d, int position, int rotation, int stats, int motion, WorldSnapshot to, int t, boolean isPlayer) {
+		if (position >= 0) {
+			to.positions[t * 2] = delta.positions[position * 2];
+			to.positions[t * 2 + 1] = delta.positions[position * 2 + 1];
+		}
+
+		if (rotation >= 0)
+			to.rotations[t] = delta.rotations[rotation];
+
+		if (isPlayer && stats >= 0) {
+			to.health[t] = delta.health[stats];
+			to.kills[t] = delta.kills[stats];
+		}
+
+		if (isPlayer && motion >= 0) {
+			to.velocities[t * 2] = delta.velocities[motion * 2];
+			to.velocities[t * 2 + 1] = delta.velocities[motion * 2 + 1];
+			to.inputSequences[t] = delta.inputSequences[motion];
+		}
+	}
+
+	/**
+	 * @param base the older snapshot
+	 * @param current the newer snapshot
+	 * @return the IDs of entities in the older snapshot that are not in the newer snapshot
+	 */
+	private static int[] removedIDs(WorldSnapshot base, WorldSnapshot current) {
+		IntSet currentIDs = new IntSet(current.ids.length);
+		for (int id : current.ids)
+			currentIDs.add(id);
+
+		int count = 0;
+		for (int id : base.ids)
+			if (!currentIDs.contains(id))
+				count++;
+
+		int[] removed = new int[count];
+		count = 0;
+		for (int id : base.ids)
+			if (!currentIDs.contains(id))
+				removed[count++] = id;
+
+		return removed;
+	}
+
+	/**
+	 * @param snapshot a full snapshot
+	 * @return the index of each entity in the snapshot by its ID
+	 */
+	private static IntIntMap indexByID(WorldSnapshot snapshot) {
+		IntIntMap indexes = new IntIntMap(snapshot.ids.length);
+		for (int i = 0; i < snapshot.ids.length; i++)
+			indexes.put(snapshot.ids[i], i);
+		return indexes;
+	}
+
+}
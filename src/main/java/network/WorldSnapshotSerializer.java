@@ -0,0 +1,145 @@
+package network;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import network.Network.WorldSnapshot;
+
+/**
+ * This class writes {@link WorldSnapshot}s without reflection, packing each value into as few bytes as its range allows.<br>
+ * Coordinates are stored as 16 bit fractions of the game area, rotations as whole degrees, and counts and IDs as variable length integers.
+ * @author Connor Stewart
+ */
+class WorldSnapshotSerializer extends Serializer<WorldSnapshot> {
+
+	/** The largest value a 16 bit unsigned coordinate can store. */
+	private static final int COORDINATE_STEPS = 0xFFFF;
+
+	/** The fastest speed a velocity can store, larger speeds are clamped. */
+	private static final float MAX_VELOCITY = 32;
+
+	/** The amount of steps a 16 bit velocity has either side of zero. */
+	private static final int VELOCITY_STEPS = Short.MAX_VALUE;
+
+	/** Health is stored in fixed point with this many steps per point of health. */
+	private static final int HEALTH_STEPS = 256;
+
+	@Override
+	public void write(Kryo kryo, Output output, WorldSnapshot snapshot) {
+		output.writeVarInt(snapshot.frame, true);
+		output.writeFloat(snapshot.time);
+		output.writeVarInt(snapshot.baseFrame, true);
+		output.writeVarInt(snapshot.playerCount, true);
+
+		writeIDs(output, snapshot.ids);
+
+		if (snapshot.baseFrame != 0) {
+			output.writeBytes(snapshot.changes);
+			writeIDs(output, snapshot.removed);
+		}
+
+		//positions are stored in pairs
+		output.writeVarInt(snapshot.positions.length / 2, true);
+		for (int i = 0; i < snapshot.positions.length; i += 2) {
+			output.writeShort(Quantization.quantize(snapshot.positions[i], 0, Network.GAME_WIDTH, COORDINATE_STEPS));
+			output.writeShort(Quantization.quantize(snapshot.positions[i + 1], 0, Network.GAME_HEIGHT, COORDINATE_STEPS));
+		}
+
+		output.writeVarInt(snapshot.rotations.length, true);
+		for (float rotation : snapshot.rotations)
+			output.writeVarInt((MathUtils.round(rotation) % 360 + 360) % 360, true);
+
+		output.writeVarInt(snapshot.health.length, true);
+		for (int i = 0; i < snapshot.health.length; i++) {
+			output.writeVarInt(Math.max(0, MathUtils.round(snapshot.health[i] * HEALTH_STEPS)), true);
+			output.writeVarInt(snapshot.kills[i], true);
+		}
+
+		output.writeVarInt(snapshot.inputSequences.length, true);
+		for (int i = 0; i < snapshot.inputSequences.length; i++) {
+			output.writeShort(Quantization.quantize(snapshot.velocities[i * 2], -MAX_VELOCITY, MAX_VELOCITY, VELOCITY_STEPS * 2));
+			output.writeShort(Quantization.quantize(snapshot.velocities[i * 2 + 1], -MAX_VELOCITY, MAX_VELOCITY, VELOCITY_STEPS * 2));
+			output.writeVarInt(snapshot.inputSequences[i], true);
+		}
+	}
+
+	@Override
+	public WorldSnapshot read(Kryo kryo, Input input, Class<WorldSnapshot> type) {
+		WorldSnapshot snapshot = new WorldSnapshot();
+		snapshot.frame = input.readVarInt(true);
+		snapshot.time = input.readFloat();
+		snapshot.baseFrame = input.readVarInt(true);
+		snapshot.playerCount = input.readVarInt(true);
+
+		snapshot.ids = readIDs(input);
+
+		if (snapshot.baseFrame != 0) {
+			snapshot.changes = input.readBytes(snapshot.ids.length);
+			snapshot.removed = readIDs(input);
+		}
+
+		snapshot.positions = new float[input.readVarInt(true) * 2];
+		for (int i = 0; i < snapshot.positions.length; i += 2) {
+			snapshot.positions[i] = Quantization.dequantize(input.readShortUnsigned(), 0, Network.GAME_WIDTH, COORDINATE_STEPS);
+			snapshot.positions[i + 1] = Quantization.dequantize(input.readShortUnsigned(), 0, Network.GAME_HEIGHT, COORDINATE_STEPS);
+		}
+
+		snapshot.rotations = new float[input.readVarInt(true)];
+		for (int i = 0; i < snapshot.rotations.length; i++)
+			snapshot.rotations[i] = input.readVarInt(true);
+
+		int statsCount = input.readVarInt(true);
+		snapshot.health = new float[statsCount];
+		snapshot.kills = new int[statsCount];
+		for (int i = 0; i < statsCount; i++) {
+			snapshot.health[i] = (float) input.readVarInt(true) / HEALTH_STEPS;
+			snapshot.kills[i] = input.readVarInt(true);
+		}
+
+		int motionCount = input.readVarInt(true);
+		snapshot.velocities = new float[motionCount * 2];
+		snapshot.inputSequences = new int[motionCount];
+		for (int i = 0; i < motionCount; i++) {
+			snapshot.velocities[i * 2] = Quantization.dequantize(input.readShortUnsigned(), -MAX_VELOCITY, MAX_VELOCITY, VELOCITY_STEPS * 2);
+			snapshot.velocities[i * 2 + 1] = Quantization.dequantize(input.readShortUnsigned(), -MAX_VELOCITY, MAX_VELOCITY, VELOCITY_STEPS * 2);
+			snapshot.inputSequences[i] = input.readVarInt(true);
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Writes a list of IDs, each ID is written as the difference from the one before it since IDs are usually close together.
+	 * @param output the output to write to
+	 * @param ids the IDs to write
+	 */
+	private static void writeIDs(Output output, int[] ids) {
+		output.writeVarInt(ids.length, true);
+
+		int previous = 0;
+		for (int id : ids) {
+			output.writeVarInt(id - previous, false);
+			previous = id;
+		}
+	}
+
+	/**
+	 * Reads a list of IDs written by {@link #writeIDs(Output, int[])}.
+	 * @param input the input to read from
+	 * @return the IDs
+	 */
+	private static int[] readIDs(Input input) {
+		int[] ids = new int[input.readVarInt(true)];
+
+		int previous = 0;
+		for (int i = 0; i < ids.length; i++) {
+			previous += input.readVarInt(false);
+			ids[i] = previous;
+		}
+
+		return ids;
+	}
+
+}
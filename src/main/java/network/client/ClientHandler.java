@@ -20,7 +20,7 @@ import java.net.SocketException;
 public class ClientHandler implements MessageQueueListener {
 
     /** The kyronet client object. */
-	private final Client client = new Client();
+	private final Client client = new Client(Network.CLIENT_WRITE_BUFFER_SIZE, Network.OBJECT_BUFFER_SIZE);
 
 	/** This clients nickname. */
 	private String nickname;
@@ -0,0 +1,97 @@
+package network.client;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * This class stores the recent states of a remote entity received from the server, each stamped with the server time it was taken at.<br>
+ * The entity is drawn slightly in the past so there is usually a state either side of the time being drawn, and the entity is moved smoothly between them.
+ * @author Connor Stewart
+ */
+public class InterpolationBuffer {
+
+	/** The amount of states stored, the oldest state is overwritten when the buffer is full. */
+	private static final int CAPACITY = 32;
+
+	/** The server time of each state. */
+	private final float[] times = new float[CAPACITY];
+
+	/** The x coordinate of each state. */
+	private final float[] xs = new float[CAPACITY];
+
+	/** The y coordinate of each state. */
+	private final float[] ys = new float[CAPACITY];
+
+	/** The rotation of each state. */
+	private final float[] rotations = new float[CAPACITY];
+
+	/** The index of the oldest state. */
+	private int start;
+
+	/** The amount of states stored. */
+	private int size;
+
+	/**
+	 * Adds the newest state of the entity, states older than the newest stored state are ignored.
+	 * @param time the server time the state was taken at
+	 * @param x the entities x coordinate
+	 * @param y the entities y coordinate
+	 * @param rotation the entities rotation
+	 */
+	public void add(float time, float x, float y, float rotation) {
+		if (size > 0 && time <= times[index(size - 1)])
+			return;
+
+		int index;
+		if (size < CAPACITY) {
+			index = index(size++);
+		} else {
+			index = start;
+			start = (start + 1) % CAPACITY;
+		}
+
+		times[index] = time;
+		xs[index] = x;
+		ys[index] = y;
+		rotations[index] = rotation;
+	}
+
+	/**
+	 * Moves an entity to where it was at a point in time, between the two states either side of it.<br>
+	 * If the time is outside of the stored states the entity is moved to the closest state.
+	 * @param time the server time to draw the entity at
+	 * @param entity the entity to move
+	 */
+	public void apply(float time, Entity entity) {
+		if (size == 0)
+			return;
+
+		//find the first state after the time
+		int after = 0;
+		while (after < size && times[index(after)] <= time)
+			after++;
+
+		if (after == 0 || after == size) {
+			int closest = index(after == 0 ? 0 : size - 1);
+			entity.setPosition(xs[closest], ys[closest]);
+			entity.setRotation(rotations[closest]);
+			return;
+		}
+
+		int from = index(after - 1);
+		int to = index(after);
+		float progress = (time - times[from]) / (times[to] - times[from]);
+
+		entity.setPosition(MathUtils.lerp(xs[from], xs[to], progress), MathUtils.lerp(ys[from], ys[to], progress));
+		entity.setRotation(MathUtils.lerpAngleDeg(rotations[from], rotations[to], progress));
+	}
+
+	/**
+	 * @param offset the position of a state counting from the oldest
+	 * @return the index of the state in the arrays
+	 */
+	private int index(int offset) {
+		return (start + offset) % CAPACITY;
+	}
+
+}
@@ -0,0 +1,67 @@
+package network.client;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * This class stores where and when a projectile was fired, so the client can work out where it is without being sent its position.<br>
+ * Projectiles fly in a straight line at a constant speed, so their position at any time follows from their spawn state.
+ * @author Connor Stewart
+ */
+public class ProjectileTrajectory {
+
+	/** The x coordinate the projectile was fired from. */
+	private final float x;
+
+	/** The y coordinate the projectile was fired from. */
+	private final float y;
+
+	/** The rotation of the projectile. */
+	private final float rotation;
+
+	/** The x distance the projectile moves per second. */
+	private final float xSpeed;
+
+	/** The y distance the projectile moves per second. */
+	private final float ySpeed;
+
+	/** The server time the projectile was at its spawn position. */
+	private final float time;
+
+	/**
+	 * @param x the x coordinate the projectile was fired from
+	 * @param y the y coordinate the projectile was fired from
+	 * @param rotation the rotation of the projectile
+	 * @param speed the distance the projectile moves per second
+	 * @param time the server time the projectile was at its spawn position
+	 */
+	public ProjectileTrajectory(float x, float y, float rotation, float speed, float time) {
+		this.x = x;
+		this.y = y;
+		this.rotation = rotation;
+		this.xSpeed = MathUtils.cosDeg(rotation) * speed;
+		this.ySpeed = MathUtils.sinDeg(rotation) * speed;
+		this.time = time;
+	}
+
+	/**
+	 * @param time a server time
+	 * @return whether the projectile had been fired by that time
+	 */
+	public boolean hasFired(float time) {
+		return time >= this.time;
+	}
+
+	/**
+	 * Moves a projectile to where it is at a point in time, a time before it was fired leaves it at its spawn position.<br>
+	 * Projectiles should not be drawn at a time before they were fired, see {@link #hasFired(float)}.
+	 * @param time the server time to move the projectile to
+	 * @param projectile the projectile to move
+	 */
+	public void apply(float time, Entity projectile) {
+		float elapsed = Math.max(0, time - this.time);
+		projectile.setPosition(x + xSpeed * elapsed, y + ySpeed * elapsed);
+		projectile.setRotation(rotation);
+	}
+
+}
@@ -0,0 +1,59 @@
+package network.server;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.kryonet.KryoSerialization;
+import network.Network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This serialization allows a message to be serialized once and have the same bytes written to many connections.<br>
+ * Messages are serialized with the same Kryo instance used for normal messages, so clients read them as the original message.
+ * @author Connor Stewart
+ */
+class BroadcastSerialization extends KryoSerialization {
+
+	/** The output used to serialize messages that are being sent to many connections. */
+	private final Output output = new Output(1024, Network.OBJECT_BUFFER_SIZE);
+
+	/**
+	 * Serializes a message so it can be sent to many connections without being serialized again.
+	 * @param message the message to serialize
+	 * @return the serialized message, which can be passed to sendTCP or sendUDP
+	 */
+	synchronized SerializedMessage serialize(Object message) {
+		output.clear();
+		getKryo().writeClassAndObject(output, message);
+		return new SerializedMessage(output.toBytes());
+	}
+
+	@Override
+	public synchronized void write(Connection connection, ByteBuffer buffer, Object object) {
+		if (object instanceof SerializedMessage) {
+			byte[] bytes = ((SerializedMessage) object).bytes;
+
+			if (buffer.remaining() < bytes.length)
+				throw new KryoException("Buffer overflow. Max capacity: " + buffer.capacity() + ", required: " + (buffer.position() + bytes.length));
+
+			buffer.put(bytes);
+		} else {
+			super.write(connection, buffer, object);
+		}
+	}
+
+	/**
+	 * A message that has already been serialized.
+	 */
+	static class SerializedMessage {
+
+		/** The serialized message. */
+		private final byte[] bytes;
+
+		SerializedMessage(byte[] bytes) {
+			this.bytes = bytes;
+		}
+	}
+
+}
@@ -2,6 +2,8 @@ package network.server;
 
 import com.esotericsoftware.kryonet.Connection;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class stores information that the server knows about a client.
  * @author Connor Stewart
@@ -17,6 +19,12 @@ class ClientInfo {
 	/** The ID of this clients player. */
 	private int multiplayerID;
 
+	/** The amount of input commands from this client waiting in its games inbox. */
+	private final AtomicInteger queuedInputs = new AtomicInteger();
+
+	/** The amount of input commands from this client that have been dropped. */
+	private final AtomicInteger droppedInputs = new AtomicInteger();
+
 	/** The maximum length of a nickname. */
 	static int MAX_NAME_LENGTH = 30;
 
@@ -54,6 +62,34 @@ class ClientInfo {
 			this.nickname = nickname;
 	}
 
+	/**
+	 * Reserves a place in its games inbox for an input command from this client, called on the network thread.
+	 * @param limit the most input commands this client can have waiting
+	 * @return false if this client already has the most input commands waiting
+	 */
+	boolean reserveInput(int limit) {
+		if (queuedInputs.incrementAndGet() <= limit)
+			return true;
+
+		queuedInputs.decrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Frees the place of an input command that has been handled, or that could not be added to the inbox.
+	 */
+	void releaseInput() {
+		queuedInputs.decrementAndGet();
+	}
+
+	/**
+	 * Counts an input command from this client that has been dropped.
+	 * @return the amount of input commands from this client that have been dropped
+	 */
+	int dropInput() {
+		return droppedInputs.incrementAndGet();
+	}
+
 	/**
 	 * Set the clients multiplayer ID
 	 * @param id the new ID
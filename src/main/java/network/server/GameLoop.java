@@ -0,0 +1,88 @@
+package network.server;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.backends.headless.mock.audio.MockAudio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class updates every game hosted on the server using a fixed amount of threads.<br>
+ * Each game is scheduled to update once per step, the scheduler runs whichever game is due next so every game gets a fair share of the threads.
+ * @author Connor Stewart
+ */
+class GameLoop {
+
+	/** The time in milliseconds to wait after a game starts before adding players, giving clients time to open their game screen. */
+	private static final long START_DELAY = 500;
+
+	/** The threads that update the games. */
+	private final ScheduledExecutorService executor;
+
+	/** The scheduled update of each game. */
+	private final Map<ServerGame, ScheduledFuture<?>> updates = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the game loop threads and sets up the parts of libGDX the games use without creating an application.<br>
+	 * Entities only load images when they are drawn, so the server does not need graphics, only silent audio for the sounds projectiles play.
+	 */
+	GameLoop() {
+		Gdx.files = new HeadlessFiles();
+		Gdx.audio = new MockAudio();
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "Game loop " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		executor = Executors.newScheduledThreadPool(ServerConfig.LOOP_THREADS, threadFactory);
+	}
+
+	/**
+	 * Starts updating a game.
+	 * @param game the game to start
+	 */
+	void add(ServerGame game) {
+		game.start();
+
+		long period = TimeUnit.SECONDS.toNanos(1) / ServerConfig.TICK_RATE;
+		long delay = TimeUnit.MILLISECONDS.toNanos(START_DELAY);
+
+		updates.put(game, executor.scheduleAtFixedRate(() -> update(game), delay, period, TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Stops updating a game.
+	 * @param game the game to stop
+	 */
+	void remove(ServerGame game) {
+		ScheduledFuture<?> update = updates.remove(game);
+
+		if (update != null)
+			update.cancel(false);
+	}
+
+	/**
+	 * Updates a game, a game that throws an exception is ended so it can not stop the other games from updating and its room name can be used again.
+	 * @param game the game to update
+	 */
+	private void update(ServerGame game) {
+		try {
+			game.update();
+		} catch (RuntimeException e) {
+			System.out.println("Game in room '" + game.getRoom().getRoomName() + "' has crashed and been stopped.");
+			e.printStackTrace();
+			game.abort();
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package network.server;
+
+/**
+ * This class hands out the multiplayer IDs used by the entities in a single game.<br>
+ * IDs start at one and are kept small by reusing the IDs of removed entities, oldest first.
+ * A removed ID is only reused once enough steps have passed that clients will not confuse the new entity with the old one.
+ * @author Connor Stewart
+ */
+class IDAllocator {
+
+	/** The largest ID that can be handed out, so IDs fit in 16 bits. */
+	static final int MAX_ID = 0xFFFF;
+
+	/** The amount of steps an ID must be free for before it is reused. */
+	private final int reuseDelay;
+
+	/** The next ID that has never been handed out. */
+	private int nextID = 1;
+
+	/** The IDs that have been freed, in the order they were freed. */
+	private int[] freeIDs = new int[16];
+
+	/** The step each free ID was freed on. */
+	private int[] freedSteps = new int[16];
+
+	/** The index of the oldest free ID. */
+	private int head;
+
+	/** The amount of free IDs. */
+	private int size;
+
+	/**
+	 * @param reuseDelay the amount of steps an ID must be free for before it is reused
+	 */
+	IDAllocator(int reuseDelay) {
+		this.reuseDelay = reuseDelay;
+	}
+
+	/**
+	 * Hands out an ID, reusing the oldest free ID if it has been free for long enough.
+	 * @param step the current step
+	 * @return the ID, or -1 if every ID is in use
+	 */
+	int obtain(int step) {
+		if (size > 0 && step - freedSteps[head] >= reuseDelay) {
+			int id = freeIDs[head];
+			head = (head + 1) % freeIDs.length;
+			size--;
+			return id;
+		}
+
+		if (nextID <= MAX_ID)
+			return nextID++;
+
+		return -1;
+	}
+
+	/**
+	 * Returns an ID so it can be reused later.
+	 * @param id the ID to return
+	 * @param step the current step
+	 */
+	void free(int id, int step) {
+		if (size == freeIDs.length)
+			grow();
+
+		int tail = (head + size) % freeIDs.length;
+		freeIDs[tail] = id;
+		freedSteps[tail] = step;
+		size++;
+	}
+
+	/**
+	 * Doubles the space for free IDs, moving the oldest free ID to the start.
+	 */
+	private void grow() {
+		int[] ids = new int[freeIDs.length * 2];
+		int[] steps = new int[freedSteps.length * 2];
+
+		for (int i = 0; i < size; i++) {
+			ids[i] = freeIDs[(head + i) % freeIDs.length];
+			steps[i] = freedSteps[(head + i) % freedSteps.length];
+		}
+
+		freeIDs = ids;
+		freedSteps = steps;
+		head = 0;
+	}
+
+}
@@ -0,0 +1,94 @@
+package network.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size queue of messages sent to a game, any thread can add messages but only the games update thread may take them.<br>
+ * The queue does not lock or allocate, each slot stores a sequence number that tells producers and the consumer whose turn it is to use the slot.
+ * @author Connor Stewart
+ */
+class InputInbox {
+
+	/** The messages in the queue. */
+	private final AtomicReferenceArray<Object> slots;
+
+	/** The sequence number of each slot, a slot can be written when it equals the write position and read when it is one more than the read position. */
+	private final AtomicLongArray sequences;
+
+	/** Used to wrap a position to a slot index. */
+	private final int mask;
+
+	/** The position the next message will be written to. */
+	private final AtomicLong writePosition = new AtomicLong();
+
+	/** The position the next message will be read from, only used by the consumer. */
+	private long readPosition;
+
+	/**
+	 * Creates an empty inbox.
+	 * @param capacity the maximum amount of messages, rounded up to a power of two
+	 */
+	InputInbox(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+		slots = new AtomicReferenceArray<>(size);
+		sequences = new AtomicLongArray(size);
+		mask = size - 1;
+
+		for (int i = 0; i < size; i++)
+			sequences.set(i, i);
+	}
+
+	/**
+	 * Adds a message to the inbox, can be called from any thread.
+	 * @param message the message to add
+	 * @return false if the inbox is full and the message was dropped
+	 */
+	boolean offer(Object message) {
+		long position = writePosition.get();
+
+		while (true) {
+			int index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+
+			if (difference == 0) {
+				//the slot is free, try to claim it
+				if (writePosition.compareAndSet(position, position + 1)) {
+					slots.lazySet(index, message);
+					sequences.set(index, position + 1); //publish the message to the consumer
+					return true;
+				}
+				position = writePosition.get();
+			} else if (difference < 0) {
+				//the consumer has not read this slot yet
+				return false;
+			} else {
+				//another producer claimed this slot first
+				position = writePosition.get();
+			}
+		}
+	}
+
+	/**
+	 * Takes the oldest message from the inbox, must only be called from the thread that owns the inbox.
+	 * @return the oldest message or null if the inbox is empty
+	 */
+	Object poll() {
+		int index = (int) readPosition & mask;
+
+		if (sequences.get(index) != readPosition + 1)
+			return null;
+
+		Object message = slots.get(index);
+		slots.lazySet(index, null);
+
+		//free the slot for the next time producers wrap around to it
+		sequences.set(index, readPosition + mask + 1);
+		readPosition++;
+
+		return message;
+	}
+
+}
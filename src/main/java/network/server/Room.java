@@ -58,8 +58,7 @@ class Room {
 
 		playerListMessage.players = playerNames;
 
-		for (ClientInfo client : clients)
-			client.getConnection().sendTCP(playerListMessage);
+		ServerHandler.getInstance().sendTCPTo(clients, playerListMessage);
 	}
 
 	/**
@@ -93,8 +92,7 @@ class Room {
 		clients.removeIndex(clients.indexOf(client, false));
 
 		if (client.equals(leader)) {
-			for (ClientInfo roomClient : clients)
-				roomClient.getConnection().sendTCP(new Network.LobbyClosed());
+			ServerHandler.getInstance().sendTCPTo(clients, new Network.LobbyClosed());
 
 			ServerHandler.getInstance().closeRoom(this);
 		} else {
@@ -107,8 +105,7 @@ class Room {
 
 			playerListMessage.players = playerNames;
 
-			for (ClientInfo roomClient : clients)
-				roomClient.getConnection().sendTCP(playerListMessage);
+			ServerHandler.getInstance().sendTCPTo(clients, playerListMessage);
 		}
 	}
 
@@ -0,0 +1,36 @@
+package network.server;
+
+/**
+ * This class stores settings for the server, each can be changed with a system property when starting the server.<br>
+ * For example: java -Dserver.tickRate=30 -Dserver.snapshotRate=15 -jar SpaceShooter-1.jar server
+ * @author Connor Stewart
+ */
+final class ServerConfig {
+
+	/** How many times per second each game is simulated. */
+	static final int TICK_RATE = Math.max(1, Integer.getInteger("server.tickRate", 60));
+
+	/** How many times per second each game sends a snapshot of its entities to its clients, can not be higher than the tick rate. */
+	static final int SNAPSHOT_RATE = Math.max(1, Math.min(TICK_RATE, Integer.getInteger("server.snapshotRate", 20)));
+
+	/** Whether projectiles are included in snapshots, otherwise clients work out where projectiles are from where and when they were fired. */
+	static final boolean PROJECTILE_SNAPSHOTS = Boolean.getBoolean("server.projectileSnapshots");
+
+	/** The maximum amount of simulation steps a game can run to catch up after a slow frame. */
+	static final int MAX_STEPS_PER_FRAME = Math.max(1, Integer.getInteger("server.maxStepsPerFrame", 5));
+
+	/** The amount of threads used to update every game on the server. */
+	static final int LOOP_THREADS = Math.max(1, Integer.getInteger("server.loopThreads", Runtime.getRuntime().availableProcessors()));
+
+	/** Whether entities within a game are updated across the threads of the common fork/join pool once the game holds enough of them. */
+	static final boolean PARALLEL_UPDATE = Boolean.getBoolean("server.parallelUpdate");
+
+	/** The maximum time in milliseconds a game can spend simulating steps each time it is updated, defaults to the length of one step. */
+	static final int TICK_BUDGET = Math.max(1, Integer.getInteger("server.tickBudget", 1000 / TICK_RATE));
+
+	/** The time in seconds simulated by each step. */
+	static final float STEP_TIME = 1f / TICK_RATE;
+
+	private ServerConfig() {}
+
+}
@@ -2,189 +2,346 @@ package network.server;
 
 import backend.entities.Entity;
 import backend.entities.MultiplayerPlayer;
+import backend.logic.EntityStore;
+import backend.logic.ParallelUpdate;
+import backend.logic.SpatialHash;
 import backend.projectiles.Projectile;
-import com.badlogic.gdx.ApplicationListener;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.backends.headless.HeadlessApplication;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
 import com.esotericsoftware.kryonet.Listener;
 import network.Network;
+import network.SnapshotDelta;
 import network.Network.*;
-import org.mockito.Mockito;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This thread hosts a server side game game once a room of players has been assembled.
+ * This class hosts a server side game once a room of players has been assembled, it is updated by the {@link GameLoop}.
  * @author Connor Stewart
  */
-public class ServerGame extends Listener implements ApplicationListener {
+public class ServerGame extends Listener {
 	
 	/** The room containing clients playing this game. */
 	private final Room room;
 	
-	/** The last multiplayer ID assigned to an entity. */
-	private static int lastIDAssigned;
+	/**
+	 * The amount of steps a removed projectiles ID is kept before it is reused.<br>
+	 * This is longer than the snapshots kept for deltas, so a delta never mistakes a new projectile for an old one with the same ID.
+	 */
+	private static final int ID_REUSE_DELAY = Network.SNAPSHOT_HISTORY * ServerConfig.TICK_RATE / ServerConfig.SNAPSHOT_RATE + ServerConfig.TICK_RATE;
+
+	/** Hands out the multiplayer IDs of the entities in this game. */
+	private final IDAllocator ids = new IDAllocator(ID_REUSE_DELAY);
 
 	/** The entities in this game. */
 	private Array<Entity> entities = new Array<>();
 
+	/** The players in this game by their multiplayer ID. */
+	private final IntMap<MultiplayerPlayer> players = new IntMap<>();
+
 	/** The time in between game updates ticks in seconds. */
 	private static final float TICK_TIME = 1;
 
 	/** The time that has passes since the last tick. */
 	private float tickTimer;
 
-	/** The gdx application used to handle the server game. */
-	private HeadlessApplication gdxApp;
+	/** The amount of steps that have been simulated. */
+	private int stepCount;
+
+	/** The time that has not been simulated yet. */
+	private float stepTimer;
+
+	/** Increased by the snapshot rate every step, a snapshot is sent each time it reaches the tick rate. */
+	private int snapshotCredit;
+
+	/** The most recent snapshots sent to clients, used as the base of delta snapshots. */
+	private final WorldSnapshot[] snapshotHistory = new WorldSnapshot[Network.SNAPSHOT_HISTORY];
+
+	/** The amount of snapshots that have been sent. */
+	private int snapshotCount;
+
+	/** The size of each cell in the collision broadphase grid. */
+	private static final float BROADPHASE_CELL_SIZE = 5;
+
+	/** The grid used to find projectiles that are near players. */
+	private final SpatialHash broadphase = new SpatialHash(Network.GAME_WIDTH, Network.GAME_HEIGHT, BROADPHASE_CELL_SIZE);
+
+	/** The bounds of the entities, loaded once per collision pass. */
+	private final EntityStore store = new EntityStore();
+
+	/** The indexes of projectiles found by a broadphase query. */
+	private final IntArray candidates = new IntArray();
+
+	/** The indexes of projectiles that should be removed at the end of this update. */
+	private final Bits removed = new Bits();
+
+	/** The maximum amount of input commands that can wait in the inbox. */
+	private static final int INBOX_CAPACITY = 1024;
+
+	/** The maximum amount of input commands a single client can have waiting in the inbox, so one client can not fill the inbox for everyone else. */
+	private static final int MAX_QUEUED_INPUTS = 32;
+
+	/** Input commands from clients waiting to be handled on the next step. */
+	private final InputInbox inbox = new InputInbox(INBOX_CAPACITY);
+
+	/** Clients that have left the game, kept apart from the inbox so they are never dropped when the inbox is full. */
+	private final Queue<ClientInfo> leftClients = new ConcurrentLinkedQueue<>();
+
+	/** The time in nanoseconds of the last update, zero if the game has not been updated yet. */
+	private long lastUpdate;
+
+	/** The amount of times this game has run out of time while catching up. */
+	private int overruns;
+
+	/** Whether this game has ended, once it has ended it is no longer simulated. */
+	private boolean ended;
 
 	ServerGame(Room toHost) {
 		this.room = toHost;
 		ServerHandler.getInstance().addListener(this);
-		Gdx.gl = Mockito.mock(GL20.class);
-		gdxApp = new HeadlessApplication(this);
 	}
 
-	void message(Object object) {
-		//updates the players rotation based on mouse movement
-		if (object instanceof MouseMoved) {
-			MouseMoved msg = (MouseMoved) object;
-			MultiplayerPlayer toUpdate = getPlayerByID(msg.id);
-			if (toUpdate != null) {
-				//rotate the player towards the mouse
-				toUpdate.rotateTowards(msg.x, msg.y);
-				toUpdate.setRotation(toUpdate.getRotation() - 90); //-90 due to how the player sprite is drawn
-			}
+	/**
+	 * Queues an input command from a client in this games inbox, called on the network thread.<br>
+	 * The command is handled at the start of the next step so the game state is only changed by the thread updating the game.
+	 * Commands from a client that already has {@link #MAX_QUEUED_INPUTS} waiting, or that arrive when the inbox is full, are dropped and counted.
+	 * @param client the client that sent the message
+	 * @param object the message the client sent, anything other than an input command is ignored
+	 */
+	void message(ClientInfo client, Object object) {
+		if (!(object instanceof InputCommand))
+			return;
+
+		if (client.reserveInput(MAX_QUEUED_INPUTS)) {
+			if (inbox.offer(new QueuedInput(client, (InputCommand) object)))
+				return;
+
+			client.releaseInput();
 		}
 
-		//fires projectiles depending on mouse input
-		if (object instanceof MouseInput) {
-			MouseInput msg = (MouseInput) object;
-			MultiplayerPlayer toUpdate = getPlayerByID(msg.id);
-			if (toUpdate != null) {
-				if (msg.buttonCode == Input.Buttons.LEFT) {
-					Projectile pp = toUpdate.getLeftWeapon().fire(toUpdate.getCenterX(), toUpdate.getCenterY(), toUpdate.getRotation());
-					if (pp != null) {
-						lastIDAssigned++;
-						String projectileType = "Light";
-						AddProjectile toSend = new AddProjectile();
-						toSend.playerID = toUpdate.getMultiplayerID();
-						toSend.id = lastIDAssigned;
-						toSend.type = projectileType;
-						ServerHandler.getInstance().getServer().sendToAllUDP(toSend);
-
-						pp.setFiredByID(toUpdate.getMultiplayerID());
-						pp.setMultiplayerID(lastIDAssigned);
-						entities.add(pp);
-					}
-				}
-				if (msg.buttonCode == Input.Buttons.RIGHT) {
-					Projectile pp = toUpdate.getRightWeapon().fire(toUpdate.getCenterX(), toUpdate.getCenterY(), toUpdate.getRotation());
-					if (pp != null) {
-						lastIDAssigned++;
-						String projectileType = "Heavy";
-
-						AddProjectile toSend = new AddProjectile();
-						toSend.playerID = toUpdate.getMultiplayerID();
-						toSend.id = lastIDAssigned;
-						toSend.type = projectileType;
-						ServerHandler.getInstance().getServer().sendToAllUDP(toSend);
-
-						pp.setFiredByID(toUpdate.getMultiplayerID());
-						pp.setMultiplayerID(lastIDAssigned);
-						entities.add(pp);
-					}
-				}
-			}
+		int dropped = client.dropInput();
+		if (dropped % 100 == 1)
+			System.out.println("Game in room '" + room.getRoomName() + "' has dropped " + dropped + " input commands from '" + client.getNickname() + "'.");
+	}
+
+	/**
+	 * Handles every input command that has been queued since the last step, then removes the clients that have left.
+	 */
+	private void handleMessages() {
+		Object message;
+		while ((message = inbox.poll()) != null) {
+			QueuedInput queued = (QueuedInput) message;
+			queued.client.releaseInput();
+			handleInput(queued.client, queued.input);
+		}
+
+		ClientInfo left;
+		while ((left = leftClients.poll()) != null)
+			removeClient(left);
+	}
+
+	/**
+	 * Removes a client that has disconnected from the game and its room.
+	 * @param client the client to remove
+	 */
+	private void removeClient(ClientInfo client) {
+		MultiplayerPlayer toRemove = getPlayerByID(client.getID());
+
+		if (toRemove != null) {
+			toRemove.setHeldInput(0, toRemove.getRotation()); //stop the player moving and firing
+			RemovePlayer toSend = new RemovePlayer();
+			toSend.id = toRemove.getMultiplayerID();
+			ServerHandler.getInstance().sendTCPTo(room.getClients(), toSend);
 		}
 
-		//moves players depending on key input
-		if (object instanceof KeyInput) {
-			KeyInput key = (KeyInput) object;
-			MultiplayerPlayer toUpdate = getPlayerByID(key.id);
+		room.getClients().removeValue(client, false);
+	}
 
-			if (toUpdate != null) {
-				if (key.keyCode == Input.Keys.W)
-					toUpdate.moveUp(Gdx.graphics.getDeltaTime());
+	/**
+	 * Stores the input from a client, the latest input of each player is applied every step by {@link #applyInputs(float)}.
+	 * @param client the client that sent the command, its own player is the only one it can control
+	 * @param input the input command to store
+	 */
+	private void handleInput(ClientInfo client, InputCommand input) {
+		MultiplayerPlayer toUpdate = getPlayerByID(client.getID());
 
-				if (key.keyCode == Input.Keys.S)
-					toUpdate.moveDown(Gdx.graphics.getDeltaTime());
+		if (toUpdate != null && input.snapshotAck > toUpdate.getLastSnapshotAck())
+			toUpdate.setLastSnapshotAck(input.snapshotAck);
 
-				if (key.keyCode == Input.Keys.D)
-					toUpdate.moveRight(Gdx.graphics.getDeltaTime());
+		//ignore commands that arrive after a newer command, the client sends its whole input every frame so a lost command is not resent
+		if (toUpdate != null && input.sequence > toUpdate.getLastInputSequence()) {
+			toUpdate.setLastInputSequence(input.sequence);
+			toUpdate.setHeldInput(input.buttons, input.rotation);
+		}
+	}
 
-				if (key.keyCode == Input.Keys.A)
-					toUpdate.moveLeft(Gdx.graphics.getDeltaTime());
-			}
+	/**
+	 * Moves every player by a step using the latest input from its client and fires the weapons it is holding.<br>
+	 * Players are moved by the servers step time rather than the frame time a client claims, so sending commands faster or losing some does not change how far a player moves.
+	 * @param delta the time simulated by this step
+	 */
+	private void applyInputs(float delta) {
+		for (MultiplayerPlayer player : players.values()) {
+			int buttons = player.getHeldButtons();
+			player.applyInput(buttons, player.getAimRotation(), delta);
+
+			if ((buttons & MultiplayerPlayer.FIRE_LIGHT) != 0)
+				fire(player, player.getLeftWeapon().fire(player.getCenterX(), player.getCenterY(), player.getRotation()), "Light");
+
+			if ((buttons & MultiplayerPlayer.FIRE_HEAVY) != 0)
+				fire(player, player.getRightWeapon().fire(player.getCenterX(), player.getCenterY(), player.getRotation()), "Heavy");
 		}
 	}
 
-	public void create() {
-		//tell the clients to open their game screens
-		for (ClientInfo client : room.getClients())
-			client.getConnection().sendTCP(new StartGame());
-		
-		try {
-			Thread.sleep(500L);
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+	/**
+	 * Adds a projectile fired by a player to the game and tells the clients about it.
+	 * @param player the player that fired the projectile
+	 * @param projectile the projectile fired, or null if the weapon was on cooldown
+	 * @param projectileType the type of projectile, either Light or Heavy
+	 */
+	private void fire(MultiplayerPlayer player, Projectile projectile, String projectileType) {
+		if (projectile == null)
+			return;
+
+		int id = ids.obtain(stepCount);
+		if (id < 0) {
+			projectile.destroy(); //every ID is in use
+			return;
 		}
-		
+
+		AddProjectile toSend = new AddProjectile();
+		toSend.playerID = player.getMultiplayerID();
+		toSend.id = id;
+		toSend.type = projectileType;
+		toSend.x = projectile.getX();
+		toSend.y = projectile.getY();
+		toSend.rotation = projectile.getRotation();
+		toSend.speed = (float) projectile.getSpeed();
+		toSend.time = (stepCount - 1) * ServerConfig.STEP_TIME; //the projectile first moves during this step
+		ServerHandler.getInstance().sendTCPTo(room.getClients(), toSend); //sent reliably, nothing else tells clients about a projectile they missed
+
+		projectile.setFiredByID(player.getMultiplayerID());
+		projectile.setMultiplayerID(id);
+		entities.add(projectile);
+	}
+
+	/**
+	 * Tells the clients to open their game screens.
+	 */
+	void start() {
+		ServerHandler.getInstance().sendTCPTo(room.getClients(), new StartGame());
+	}
+
+	/**
+	 * Adds a player for every client, called by the first update once the clients have opened their game screens.
+	 */
+	private void addPlayers() {
 		//tell the clients to add the player characters to the game
 		for (int i = 0; i < room.getClients().size ; i++) {
-			lastIDAssigned++;
+			int id = ids.obtain(stepCount);
 
-			room.getClients().get(i).setMultiplayerID(lastIDAssigned);
+			room.getClients().get(i).setMultiplayerID(id);
 
 			AddPlayer toSend = new AddPlayer();
-			toSend.id = lastIDAssigned;
+			toSend.id = id;
 			toSend.name = room.getClients().get(i).getNickname();
 			ServerHandler.getInstance().sendTCPTo(room.getClients(), toSend);
 
 			MultiplayerPlayer toAdd = new MultiplayerPlayer(Network.GAME_HEIGHT / 2, Network.GAME_HEIGHT / 2, room.getClients().get(i).getNickname());
-			toAdd.setMultiplayerID(lastIDAssigned);
+			toAdd.setMultiplayerID(id);
 			entities.add(toAdd);
+			players.put(id, toAdd);
 		}
 	}
 	
-	public void render() {
-		float delta = Gdx.graphics.getDeltaTime();
+	/**
+	 * Simulates the time that has passed since the last update in fixed steps.<br>
+	 * If the game can not catch up within its step limit or time budget the remaining time is dropped, so a slow game can not hold up the other games.
+	 */
+	void update() {
+		if (ended)
+			return;
+
+		long now = System.nanoTime();
+
+		if (lastUpdate == 0) {
+			lastUpdate = now;
+			addPlayers();
+			return;
+		}
+
+		stepTimer += (now - lastUpdate) / (float) TimeUnit.SECONDS.toNanos(1);
+		lastUpdate = now;
+
+		long deadline = now + TimeUnit.MILLISECONDS.toNanos(ServerConfig.TICK_BUDGET);
+
+		//simulate the game in fixed steps
+		int steps = 0;
+		while (stepTimer >= ServerConfig.STEP_TIME && !ended) {
+			if (steps == ServerConfig.MAX_STEPS_PER_FRAME || System.nanoTime() > deadline) {
+				//give up on catching up if too far behind
+				stepTimer = 0;
+				if (++overruns % 100 == 1)
+					System.out.println("Game in room '" + room.getRoomName() + "' is running behind, " + overruns + " overruns.");
+				break;
+			}
+
+			stepTimer -= ServerConfig.STEP_TIME;
+			steps++;
+			step(ServerConfig.STEP_TIME);
+		}
+	}
+
+	/**
+	 * Simulates the game by a fixed amount of time and sends a snapshot to the clients if one is due.
+	 * @param delta the time simulated by this step
+	 */
+	private void step(float delta) {
+		stepCount++;
+		handleMessages();
+		applyInputs(delta);
+
+		//independent entities can be moved across threads first
+		if (ServerConfig.PARALLEL_UPDATE)
+			ParallelUpdate.updateIndependent(entities, delta, i -> true);
 
 		for (int i = 0 ; i < entities.size; i++) {
 			Entity currentEntity = entities.get(i);
-			currentEntity.update(delta);
+			if (!(ServerConfig.PARALLEL_UPDATE && currentEntity.updatesIndependently()))
+				currentEntity.update(delta);
+
 			if (currentEntity instanceof Projectile) {
 				Projectile projectile = (Projectile) currentEntity;
 				
-				//send the projectile update command to the clients
-				UpdateProjectile toSend = new UpdateProjectile();
-				toSend.id = projectile.getMultiplayerID();
-				toSend.x = projectile.getX();
-				toSend.y = projectile.getY();
-				toSend.r = Math.floor(projectile.getRotation());
-				ServerHandler.getInstance().getServer().sendToAllUDP(toSend);
-				
 				//remove the projectile if its outside the map
 				if (projectile.getX() > Network.GAME_WIDTH || projectile.getX() < 0 || projectile.getY() > Network.GAME_HEIGHT || projectile.getY() < 0)
-					removeProjectile(projectile);
-			} else if (currentEntity instanceof MultiplayerPlayer) {
-				MultiplayerPlayer player = (MultiplayerPlayer) currentEntity;
-				
-				//send the player update command to the clients
-				UpdatePlayer toSend = new UpdatePlayer();
-				toSend.id = player.getMultiplayerID();
-				toSend.x = player.getX();
-				toSend.y = player.getY();
-				toSend.r = Math.floor(player.getRotation());
-				toSend.health = player.getHealth();
-				toSend.kills = player.getKills();
-				ServerHandler.getInstance().getServer().sendToAllUDP(toSend);
+					removed.set(i);
 			}
-			
-			//check if this entity collides with any others
-			for (int j = 0; j < entities.size; j++)
-				if (currentEntity.getBoundingRectangle().overlaps(entities.get(j).getBoundingRectangle()) && !currentEntity.equals(entities.get(j)))
-					resolveCollision(currentEntity, entities.get(j));
+		}
+
+		checkCollisions();
+
+		//remove projectiles that have left the map or hit a player
+		int kept = 0;
+		for (int i = 0; i < entities.size; i++) {
+			Entity entity = entities.get(i);
+			if (removed.get(i))
+				removeProjectile((Projectile) entity);
+			else
+				entities.set(kept++, entity);
+		}
+		entities.truncate(kept);
+		removed.clear();
+
+		//send the state of every entity to the clients in a single message, at the snapshot rate
+		snapshotCredit += ServerConfig.SNAPSHOT_RATE;
+		if (snapshotCredit >= ServerConfig.TICK_RATE) {
+			snapshotCredit -= ServerConfig.TICK_RATE;
+			sendSnapshot();
 		}
 
 		tickTimer += delta;
@@ -193,27 +350,149 @@ public class ServerGame extends Listener implements ApplicationListener {
 	}
 
 	/**
-	 * Called every time the time the tickTimer reaches the TICK_TIME.
+	 * Sends a snapshot to each client, encoded against the last snapshot the client acknowledged so unchanged entities are left out.<br>
+	 * Clients that acknowledged the same snapshot are sent the same delta, so each delta is only encoded and serialized once.
+	 */
+	private void sendSnapshot() {
+		WorldSnapshot snapshot = createSnapshot();
+
+		IntMap<Array<ClientInfo>> clientsByAck = new IntMap<>();
+		for (ClientInfo client : room.getClients()) {
+			MultiplayerPlayer player = getPlayerByID(client.getID());
+			int ack = player == null ? 0 : player.getLastSnapshotAck();
+
+			Array<ClientInfo> clients = clientsByAck.get(ack);
+			if (clients == null) {
+				clients = new Array<>();
+				clientsByAck.put(ack, clients);
+			}
+			clients.add(client);
+		}
+
+		for (IntMap.Entry<Array<ClientInfo>> clients : clientsByAck.entries()) {
+			WorldSnapshot base = getSentSnapshot(clients.key);
+			ServerHandler.getInstance().sendUDPTo(clients.value, base == null ? snapshot : SnapshotDelta.encode(base, snapshot));
+		}
+
+		snapshotHistory[snapshotCount++ % snapshotHistory.length] = snapshot;
+	}
+
+	/**
+	 * @param frame the frame of a snapshot
+	 * @return the snapshot sent on that frame, or null if it is no longer kept
+	 */
+	private WorldSnapshot getSentSnapshot(int frame) {
+		for (WorldSnapshot snapshot : snapshotHistory)
+			if (snapshot != null && snapshot.frame == frame)
+				return snapshot;
+
+		return null;
+	}
+
+	/**
+	 * Creates a snapshot containing the position of every player, players are placed before projectiles.<br>
+	 * Projectiles are only included if {@link ServerConfig#PROJECTILE_SNAPSHOTS} is set, otherwise clients simulate them from when they were fired.
+	 * @return the snapshot of the current step
+	 */
+	private WorldSnapshot createSnapshot() {
+		int playerCount = 0;
+		for (int i = 0; i < entities.size; i++)
+			if (entities.get(i) instanceof MultiplayerPlayer)
+				playerCount++;
+
+		int entityCount = ServerConfig.PROJECTILE_SNAPSHOTS ? entities.size : playerCount;
+
+		WorldSnapshot snapshot = new WorldSnapshot();
+		snapshot.frame = stepCount;
+		snapshot.time = stepCount * ServerConfig.STEP_TIME;
+		snapshot.playerCount = playerCount;
+		snapshot.ids = new int[entityCount];
+		snapshot.positions = new float[entityCount * 2];
+		snapshot.rotations = new float[entityCount];
+		snapshot.health = new float[playerCount];
+		snapshot.kills = new int[playerCount];
+		snapshot.velocities = new float[playerCount * 2];
+		snapshot.inputSequences = new int[playerCount];
+
+		int playerIndex = 0;
+		int projectileIndex = playerCount;
+
+		for (int i = 0; i < entities.size; i++) {
+			Entity entity = entities.get(i);
+			int index;
+
+			if (entity instanceof MultiplayerPlayer) {
+				MultiplayerPlayer player = (MultiplayerPlayer) entity;
+				index = playerIndex++;
+				snapshot.health[index] = (float) player.getHealth();
+				snapshot.kills[index] = player.getKills();
+				snapshot.velocities[index * 2] = player.getXVelocity();
+				snapshot.velocities[index * 2 + 1] = player.getYVelocity();
+				snapshot.inputSequences[index] = player.getLastInputSequence();
+			} else if (ServerConfig.PROJECTILE_SNAPSHOTS) {
+				index = projectileIndex++;
+			} else {
+				continue;
+			}
+
+			snapshot.ids[index] = entity.getMultiplayerID();
+			snapshot.positions[index * 2] = entity.getX();
+			snapshot.positions[index * 2 + 1] = entity.getY();
+			snapshot.rotations[index] = (float) Math.floor(entity.getRotation());
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Called every time the time the tickTimer reaches the TICK_TIME, ends the game if a client has won or every client has left.
 	 */
 	private void tick() {
 		tickTimer = 0;
 
-		if (room.getClients().size <= 1) {
-			ClientInfo lastClient = room.getClients().get(0);
-			if (lastClient != null) {
-				sendWin(lastClient);
-				ServerHandler.getInstance().endGame(this);
-			}
+		if (room.getClients().size == 0) {
+			end();
+			return;
 		}
 
+		ClientInfo winner = getWinner();
+		if (winner != null) {
+			sendWin(winner);
+			end();
+		}
+	}
+
+	/**
+	 * @return the client that has won the game, either the last client left or the first to reach ten kills, or null if nobody has won yet
+	 */
+	private ClientInfo getWinner() {
+		if (room.getClients().size == 1)
+			return room.getClients().get(0);
+
 		for (int i = 0; i < room.getClients().size; i++) {
 			ClientInfo client = room.getClients().get(i);
 			MultiplayerPlayer player = getPlayerByID(client.getID());
-			if (player != null && player.getKills() >= 10) {
-				sendWin(client);
-				ServerHandler.getInstance().endGame(this);
-			}
+			if (player != null && player.getKills() >= 10)
+				return client;
 		}
+
+		return null;
+	}
+
+	/**
+	 * Ends this game, it is removed from the server and no more steps are simulated or snapshots sent.
+	 */
+	private void end() {
+		ended = true;
+		ServerHandler.getInstance().endGame(this);
+	}
+
+	/**
+	 * Ends this game without a winner after it has crashed, telling its clients that the game has stopped.
+	 */
+	void abort() {
+		ServerHandler.getInstance().sendTCPTo(room.getClients(), new GameEnded());
+		end();
 	}
 
 	/**
@@ -227,34 +506,62 @@ public class ServerGame extends Listener implements ApplicationListener {
 	}
 
 	/**
-	 * Resolves a collision between two entities.
-	 * @param entity1 the first entity in the collision
-	 * @param entity2 the second entity in the collision
+	 * Checks for collisions between players and projectiles.<br>
+	 * Only projectiles are placed in the broadphase grid since they can only hit players, each player then checks the projectiles near it.
 	 */
-	private void resolveCollision(Entity entity1, Entity entity2) {
-		if (entity1 instanceof MultiplayerPlayer) {
-			if (entity2 instanceof Projectile) {
-				Projectile projectile = (Projectile) entity2;
-				MultiplayerPlayer player = (MultiplayerPlayer) entity1;
-				
-				//if the projectile was fired by another player
-				if (projectile.getFiredByID() != player.getMultiplayerID()) {
-					player.reduceHealth(projectile.getDamage());
-					entities.removeValue(projectile, false);
-					
-					if (player.getHealth() <= 0) {
-						MultiplayerPlayer toIncrement = getPlayerByID(projectile.getFiredByID());
-
-						if (toIncrement != null)
-							toIncrement.incrementKills();
-
-						player.resetHealth();
-						player.setPosition(Network.GAME_WIDTH / 2, Network.GAME_HEIGHT / 2);
+	private void checkCollisions() {
+		store.load(entities);
+		broadphase.clear();
+		for (int i = 0; i < entities.size; i++)
+			if (entities.get(i) instanceof Projectile && !removed.get(i))
+				store.insert(broadphase, i);
+
+		for (int i = 0; i < entities.size; i++) {
+			if (!(entities.get(i) instanceof MultiplayerPlayer))
+				continue;
+
+			MultiplayerPlayer player = (MultiplayerPlayer) entities.get(i);
+			store.query(broadphase, i, candidates);
+
+			for (int j = 0; j < candidates.size; j++) {
+				int projectileIndex = candidates.get(j);
+				Projectile projectile = (Projectile) entities.get(projectileIndex);
+
+				if (!removed.get(projectileIndex) && store.overlaps(i, projectileIndex)) {
+					if (resolveCollision(player, projectile)) {
+						removed.set(projectileIndex);
+						store.update(i, player); //the player may have respawned
 					}
 				}
 			}
 		}
 	}
+
+	/**
+	 * Resolves a collision between a player and a projectile.
+	 * @param player the player in the collision
+	 * @param projectile the projectile in the collision
+	 * @return whether the projectile hit the player and should be removed
+	 */
+	private boolean resolveCollision(MultiplayerPlayer player, Projectile projectile) {
+		//ignore projectiles fired by this player
+		if (projectile.getFiredByID() == player.getMultiplayerID())
+			return false;
+
+		player.reduceHealth(projectile.getDamage());
+
+		if (player.getHealth() <= 0) {
+			MultiplayerPlayer toIncrement = getPlayerByID(projectile.getFiredByID());
+
+			if (toIncrement != null)
+				toIncrement.incrementKills();
+
+			player.resetHealth();
+			player.setPosition(Network.GAME_WIDTH / 2, Network.GAME_HEIGHT / 2);
+		}
+
+		return true;
+	}
 	
 	/**
 	 * Gets a MultiplayerPlayer using its multiplayer id.
@@ -262,27 +569,23 @@ public class ServerGame extends Listener implements ApplicationListener {
 	 * @return the player that has a matching id or null
 	 */
 	private MultiplayerPlayer getPlayerByID(int id) {
-		for (Entity entity : entities)
-			if (entity instanceof MultiplayerPlayer)
-				if (entity.getMultiplayerID() == id)
-					return (MultiplayerPlayer) entity;
-		
-		return null;
+		return players.get(id);
 	}
 	
 	/**
-	 * Tells all clients to remove a projectile and queue it for removal from the server.
+	 * Tells all clients to remove a projectile and returns it to the pool of the weapon that fired it.<br>
+	 * The caller is responsible for removing the projectile from the entity array.
 	 * @param toRemove the projectile to remove
 	 */
 	private void removeProjectile(Projectile toRemove) {
 		//remove on clients
 		RemoveProjectile toSend = new RemoveProjectile();
 		toSend.id = toRemove.getMultiplayerID();
-		ServerHandler.getInstance().getServer().sendToAllUDP(toSend);
+		ServerHandler.getInstance().sendTCPTo(room.getClients(), toSend); //sent reliably, a missed removal would leave a projectile flying on clients
 		
-		//remove on server
-		toRemove.onDestroy();
-		entities.removeValue(toRemove, false);
+		//remove on server, the ID is freed first since destroying the projectile returns it to its pool and clears its ID
+		ids.free(toRemove.getMultiplayerID(), stepCount);
+		toRemove.destroy();
 	}
 
 	/**
@@ -293,29 +596,36 @@ public class ServerGame extends Listener implements ApplicationListener {
 	}
 
 	/**
-	 * Removes a player from the game.
+	 * Removes a player from the game and its room on the next step, called on the network thread.
 	 * @param client the client to remove
 	 */
 	void removePlayer(ClientInfo client) {
-		MultiplayerPlayer toRemove = getPlayerByID(client.getID());
-
-		if (toRemove != null) {
-			RemovePlayer toSend = new RemovePlayer();
-			toSend.id = toRemove.getMultiplayerID();
-			ServerHandler.getInstance().sendTCPTo(room.getClients(), toSend);
-		}
+		leftClients.add(client);
 	}
 
 	/**
-	 * Closes the gdx app that runs this game.
+	 * Releases the resources used by this game once it has ended.
 	 */
-	void close() {
-		gdxApp.exit();
+	void dispose() {
+		for (Entity entity : entities)
+			entity.releaseTexture();
 	}
 
-	public void resize(int width, int height) {}
-	public void pause() {}
-	public void resume() {}
-	public void dispose() {}
+	/**
+	 * An input command waiting in the inbox along with the client that sent it.
+	 */
+	private static class QueuedInput {
+
+		/** The client that sent the command. */
+		private final ClientInfo client;
+
+		/** The input command. */
+		private final InputCommand input;
+
+		QueuedInput(ClientInfo client, InputCommand input) {
+			this.client = client;
+			this.input = input;
+		}
+	}
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package network.server;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.Listener;
 import com.esotericsoftware.kryonet.Server;
@@ -14,6 +16,8 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class handles server functions.
@@ -24,17 +28,35 @@ public class ServerHandler extends Listener {
 	/** The singleton instance of the server handler. */
 	private static ServerHandler instance = new ServerHandler();
 
+	/** The serialization used by the server, allows messages to be serialized once when sent to many clients. */
+	private BroadcastSerialization serialization = new BroadcastSerialization();
+
 	/** The server that this handles. */
-	private Server server = new Server();
+	private Server server = new Server(Network.SERVER_WRITE_BUFFER_SIZE, Network.OBJECT_BUFFER_SIZE, serialization);
 
 	/** Open rooms on the server. */
 	private Array<Room> rooms = new Array<>();
+
+	/** Open rooms by their name. */
+	private ObjectMap<String, Room> roomsByName = new ObjectMap<>();
+
+	/** The open room each client has joined. */
+	private ObjectMap<ClientInfo, Room> roomsByClient = new ObjectMap<>();
 	
 	/** The clients connected to the server. */
 	private Array<ClientInfo> clients = new Array<>();
 
-	/** Games currently being hosted on the server. */
-	private Array<ServerGame> games = new Array<>();
+	/** The clients connected to the server by the ID of their connection. */
+	private IntMap<ClientInfo> clientsByConnection = new IntMap<>();
+
+	/** Games currently being hosted on the server by the name of their room, games remove themselves from their own thread when they end. */
+	private Map<String, ServerGame> gamesByName = new ConcurrentHashMap<>();
+
+	/** The game each client is playing, games remove their clients from their own thread when they end. */
+	private Map<ClientInfo, ServerGame> gamesByClient = new ConcurrentHashMap<>();
+
+	/** The threads that update the games hosted on the server. */
+	private GameLoop gameLoop = new GameLoop();
 
 	/**
 	 * Starts the server.
@@ -58,35 +80,29 @@ public class ServerHandler extends Listener {
 
 	@Override
 	public void connected(Connection connection) {
-		clients.add(new ClientInfo(connection));
+		ClientInfo client = new ClientInfo(connection);
+		clients.add(client);
+		clientsByConnection.put(connection.getID(), client);
 	}
 
 	@Override
 	public void disconnected(Connection connection) {
-		ClientInfo left = getClientInfoByConnection(connection);
-
-		//remove the client from games
-		for (ServerGame game : games) {
-			if (game.getRoom().getClients().contains(left, false)) {
-				game.removePlayer(left);
-				game.getRoom().getClients().removeValue(left, false);
-			}
-		}
-
-		//Array<Room> toRemove = new Array<>();
-
-		//remove the clients room if they were the leader of any
-		for (Room room : rooms)
+		ClientInfo left = clientsByConnection.remove(connection.getID());
+		if (left == null)
+			return;
+
+		//remove the client from its game
+		ServerGame game = gamesByClient.remove(left);
+		if (game != null)
+			game.removePlayer(left);
+
+		//remove the clients room if they were its leader, otherwise remove them from the room
+		Room room = roomsByClient.remove(left);
+		if (room != null) {
 			if (room.getLeader().equals(left))
 				destroyRoom(room);
-
-		//rooms.removeAll(toRemove, false);
-
-		//remove client from rooms
-		for (Room room : rooms) {
-			if (room.getClients().contains(left, false)) {
+			else
 				room.getClients().removeValue(left, false);
-			}
 		}
 
 		clients.removeValue(left, false);
@@ -97,10 +113,36 @@ public class ServerHandler extends Listener {
 	 * @param room the room to destroy
 	 */
 	private void destroyRoom(Room room) {
-		rooms.removeValue(room, false);
+		removeRoom(room);
 		sendTCPToAll(new Network.LobbyClosed());
 	}
 
+	/**
+	 * Removes a room from the list of open rooms and forgets which clients had joined it.
+	 * @param room the room to remove
+	 */
+	private void removeRoom(Room room) {
+		rooms.removeValue(room, false);
+		roomsByName.remove(room.getRoomName());
+
+		for (ClientInfo client : room.getClients())
+			if (roomsByClient.get(client) == room)
+				roomsByClient.remove(client);
+	}
+
+	/**
+	 * Adds a client to an open room, a client can only be in one room at a time.
+	 * @param client the client joining the room
+	 * @param room the room to join
+	 */
+	private void joinRoom(ClientInfo client, Room room) {
+		if (roomsByClient.containsKey(client))
+			return;
+
+		roomsByClient.put(client, room);
+		room.addClient(client);
+	}
+
 	@Override
 	public void received(Connection connection, Object object) {
 		ClientInfo client = getClientInfoByConnection(connection);
@@ -134,27 +176,20 @@ public class ServerHandler extends Listener {
 				return;
 			}
 
-			boolean duplicateName = false;
-
-			for (Room room : rooms)
-				if (room.getRoomName().equals(roomName))
-					duplicateName = true;
-
-			if (!duplicateName)
-				for (ServerGame game : games)
-					if (game.getRoom().getRoomName().equals(roomName))
-						duplicateName = true;
-
-			if (duplicateName) {
+			if (roomsByName.containsKey(roomName) || gamesByName.containsKey(roomName)) {
 				ErrorMessage em = new ErrorMessage();
 				em.message = "Your room name '" + roomName + "' is already in use, please choose another.";
 				connection.sendTCP(em);
 				return;
 			}
 
-			Room toAdd = new Room(msg.roomName, getClientInfoByConnection(connection));
-			toAdd.addClient(getClientInfoByConnection(connection));
+			if (roomsByClient.containsKey(client))
+				return;
+
+			Room toAdd = new Room(msg.roomName, client);
 			rooms.add(toAdd);
+			roomsByName.put(roomName, toAdd);
+			joinRoom(client, toAdd);
 			sendTCPToAll(getRoomUpdate());
 		}
 
@@ -166,9 +201,9 @@ public class ServerHandler extends Listener {
 		//a client has requested to join a room
 		if (object instanceof JoinRoom) {
 			JoinRoom msg = (JoinRoom) object;
-			for (Room room : rooms)
-				if (room.getRoomName().equals(msg.roomName))
-					room.addClient(getClientInfoByConnection(connection));
+			Room room = roomsByName.get(msg.roomName);
+			if (room != null)
+				joinRoom(client, room);
 		}
 
 		//a client has requested to change their nickname
@@ -215,20 +250,14 @@ public class ServerHandler extends Listener {
 
 		//removes this client from its current room
 		if (object instanceof Network.LeaveLobby) {
-			for (Room room : rooms)
-				if (room.hasClient(client))
-					room.removeClient(client);
+			Room room = roomsByClient.remove(client);
+			if (room != null)
+				room.removeClient(client);
 		}
 
 		//find the clients room and start the game if the client that sent this message is the loader
 		if (object instanceof Network.RequestGameStart) {
-			Room clientsRoom = null;
-			for (Room room : rooms) {
-				if (room.getClients().contains(client, false)) {
-					clientsRoom = room;
-					break;
-				}
-			}
+			Room clientsRoom = roomsByClient.get(client);
 
 			if (client != null && clientsRoom != null && client.equals(clientsRoom.getLeader())) {
 				startGame(clientsRoom);
@@ -261,12 +290,12 @@ public class ServerHandler extends Listener {
 	 * @param object the message the client sent
 	 */
 	private void gameMessages(ClientInfo client, Object object) {
-		for (ServerGame game : games) {
-			if (game.getRoom().getClients().contains(client, false)) {
-				game.message(object);
-				break;
-			}
-		}
+		if (client == null)
+			return;
+
+		ServerGame game = gamesByClient.get(client);
+		if (game != null)
+			game.message(client, object);
 	}
 
 	/**
@@ -274,7 +303,13 @@ public class ServerHandler extends Listener {
 	 * @param room the room to open
 	 */
 	private void startGame(Room room) {
-		games.add(new ServerGame(room));
+		ServerGame game = new ServerGame(room);
+		gamesByName.put(room.getRoomName(), game);
+
+		for (ClientInfo client : room.getClients())
+			gamesByClient.put(client, game);
+
+		gameLoop.add(game);
 	}
 
 	/**
@@ -283,11 +318,7 @@ public class ServerHandler extends Listener {
 	 * @return the ClientInfo object
 	 */
 	private ClientInfo getClientInfoByConnection(Connection connection) {
-		for (ClientInfo client : clients)
-			if (client.getConnection().equals(connection))
-				return client;
-		
-		return null;
+		return clientsByConnection.get(connection.getID());
 	}
 
 	/**
@@ -315,13 +346,27 @@ public class ServerHandler extends Listener {
 	}
 
 	/**
-	 * Sends a TCP message to an array containing client information.
+	 * Sends a TCP message to an array containing client information, the message is only serialized once.
 	 * @param clients the array of clients
 	 * @param message the message to send
 	 */
 	void sendTCPTo(Array<ClientInfo> clients, Object message) {
+		Object serialized = serialization.serialize(message);
+
 		for (ClientInfo client : clients)
-			client.getConnection().sendTCP(message);
+			client.getConnection().sendTCP(serialized);
+	}
+
+	/**
+	 * Sends a UDP message to an array containing client information, the message is only serialized once.
+	 * @param clients the array of clients
+	 * @param message the message to send
+	 */
+	void sendUDPTo(Array<ClientInfo> clients, Object message) {
+		Object serialized = serialization.serialize(message);
+
+		for (ClientInfo client : clients)
+			client.getConnection().sendUDP(serialized);
 	}
 
 	/**
@@ -329,8 +374,7 @@ public class ServerHandler extends Listener {
 	 * @param message the message to send
 	 */
 	private void sendTCPToAll(Object message) {
-		for (ClientInfo client : clients)
-			client.getConnection().sendTCP(message);
+		sendTCPTo(clients, message);
 	}
 
 	/**
@@ -338,7 +382,7 @@ public class ServerHandler extends Listener {
 	 * @param room the room to remove
 	 */
 	void closeRoom(Room room) {
-		rooms.removeValue(room, false);
+		removeRoom(room);
 		sendTCPToAll(getRoomUpdate());
 	}
 
@@ -364,8 +408,12 @@ public class ServerHandler extends Listener {
 	 * @param serverGame the game to close.
 	 */
 	void endGame(ServerGame serverGame) {
-		games.removeValue(serverGame, false);
-		serverGame.close();
+		gamesByName.remove(serverGame.getRoom().getRoomName(), serverGame);
+
+		for (ClientInfo client : serverGame.getRoom().getClients())
+			gamesByClient.remove(client, serverGame);
+
+		gameLoop.remove(serverGame);
 		serverGame.dispose();
 	}
 }
@@ -1,5 +1,6 @@
 package ui;
 
+import backend.entities.Entity;
 import backend.entities.InanimateEntity;
 import backend.entities.MultiplayerPlayer;
 import backend.projectiles.Projectile;
@@ -8,14 +9,20 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
 import com.esotericsoftware.kryonet.Client;
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.Listener;
 import com.esotericsoftware.kryonet.Listener.ThreadedListener;
 import network.Network;
+import network.SnapshotDelta;
+import network.client.InterpolationBuffer;
+import network.client.ProjectileTrajectory;
 import network.Network.*;
 
 import javax.swing.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * This class handles displaying a multiplayer game for the client.
@@ -26,15 +33,57 @@ public class MPGame extends GameScreen {
 	/** Players that are currently active in the game. */
 	private Array<Projectile> projectiles  = new Array<Projectile>();
 
+	/** The projectiles in the game by their multiplayer ID. */
+	private final IntMap<Projectile> projectilesByID = new IntMap<>();
+
 	/** Players that are currently active in the game. */
 	private Array<MultiplayerPlayer> players  = new Array<MultiplayerPlayer>();
 
+	/** The players in the game by their multiplayer ID. */
+	private final IntMap<MultiplayerPlayer> playersByID = new IntMap<>();
+
 	/** This clients player. */
 	private MultiplayerPlayer player;
 	
-	/** The last mouse position that was sent to the server. */
-	private Vector3 oldPos;
+	/** The sequence number of the last input command sent to the server. */
+	private int inputSequence;
+
+	/** The most input commands kept while waiting for the server to apply them. */
+	private static final int MAX_PENDING_INPUTS = 128;
+
+	/** Input commands that have been applied locally but not yet by the server, oldest first. */
+	private final Array<InputCommand> pendingInputs = new Array<>();
 	
+	/** Snapshots received from the server that have not been applied yet. */
+	private final Queue<WorldSnapshot> snapshots = new ConcurrentLinkedQueue<>();
+
+	/** The frame of the last snapshot that was applied, sent to the server as an acknowledgement. */
+	private int appliedFrame;
+
+	/** The most recent snapshots applied, used to rebuild delta snapshots from the server. */
+	private final WorldSnapshot[] snapshotHistory = new WorldSnapshot[Network.SNAPSHOT_HISTORY];
+
+	/** The amount of snapshots that have been applied. */
+	private int snapshotCount;
+
+	/** How far in seconds remote entities are drawn behind the newest snapshot, so there is usually a snapshot either side of the time being drawn. */
+	private static final float INTERPOLATION_DELAY = 0.1f;
+
+	/** How far in seconds the render time can drift from the snapshots before it is reset instead of corrected gradually. */
+	private static final float MAX_CLOCK_DRIFT = 0.25f;
+
+	/** The fraction of the drift between the render time and the snapshots that is corrected each snapshot. */
+	private static final float CLOCK_CORRECTION = 0.1f;
+
+	/** The server time remote entities are currently drawn at, negative until the first snapshot arrives. */
+	private float renderTime = -1;
+
+	/** The recent states of each remote player and projectile, by multiplayer ID. */
+	private final IntMap<InterpolationBuffer> interpolation = new IntMap<>();
+
+	/** Where and when each projectile was fired, by multiplayer ID. */
+	private final IntMap<ProjectileTrajectory> trajectories = new IntMap<>();
+
 	/** The client connected to the server. */
 	private Client client;
 
@@ -54,11 +103,15 @@ public class MPGame extends GameScreen {
 						MultiplayerPlayer toAdd = new MultiplayerPlayer(Network.GAME_HEIGHT / 2, Network.GAME_HEIGHT / 2, msg.name);
 						toAdd.setMultiplayerID(msg.id);
 						players.add(toAdd);
+						playersByID.put(msg.id, toAdd);
 
 						System.out.println("Adding player: " + player.getPlayerName());
 
-						if (toAdd.getPlayerName().equals(clientNickname))
+						if (toAdd.getPlayerName().equals(clientNickname)) {
+							player.releaseTexture(); //release the placeholder player
 							player = toAdd;
+							pendingInputs.clear(); //inputs sent before the player existed will never be applied
+						}
 					});
 				}
 				if (object instanceof AddProjectile) {
@@ -77,45 +130,49 @@ public class MPGame extends GameScreen {
 						if (toAdd != null) {
 							toAdd.setFiredByID(msg.playerID);
 							toAdd.setMultiplayerID(msg.id);
+							toAdd.setPosition(msg.x, msg.y);
+							toAdd.setRotation(msg.rotation);
 							projectiles.add(toAdd);
+							projectilesByID.put(msg.id, toAdd);
+							trajectories.put(msg.id, new ProjectileTrajectory(msg.x, msg.y, msg.rotation, msg.speed, msg.time));
 						}
 
 					});
 				}
-				if (object instanceof UpdatePlayer) {
-					UpdatePlayer msg = (UpdatePlayer) object;
-					MultiplayerPlayer toUpdate = getPlayerByID(msg.id);
-					if (toUpdate != null) {
-						toUpdate.setX(msg.x);
-						toUpdate.setY(msg.y);
-						toUpdate.setRotation((float) msg.r);
-						toUpdate.setHealth(msg.health);
-						toUpdate.setKills(msg.kills);
-					}
-				}
-				if (object instanceof UpdateProjectile) {
-					UpdateProjectile msg = (UpdateProjectile) object;
-					Projectile toUpdate = getProjectileByID(msg.id);
-					if (toUpdate != null) {
-						toUpdate.setX(msg.x);
-						toUpdate.setY(msg.y);
-						toUpdate.setRotation((float) msg.r);
-					}
+				if (object instanceof WorldSnapshot) {
+					//queue the snapshot, it is applied on the render thread
+					snapshots.add((WorldSnapshot) object);
 				}
 				if (object instanceof RemoveProjectile) {
 					RemoveProjectile msg = (RemoveProjectile) object;
-					Projectile toRemove = getProjectileByID(msg.id);
-					projectiles.removeValue(toRemove, false);
+					Gdx.app.postRunnable(() -> {
+						Projectile toRemove = projectilesByID.remove(msg.id);
+						interpolation.remove(msg.id);
+						trajectories.remove(msg.id);
+						if (toRemove != null) {
+							projectiles.removeValue(toRemove, true);
+							toRemove.destroy();
+						}
+					});
 				}
 				if (object instanceof RemovePlayer) {
-					MultiplayerPlayer toRemove = getPlayerByID(((RemovePlayer) object).id);
-					players.removeValue(toRemove, false);
+					RemovePlayer msg = (RemovePlayer) object;
+					Gdx.app.postRunnable(() -> {
+						MultiplayerPlayer toRemove = playersByID.remove(msg.id);
+						interpolation.remove(msg.id);
+						if (toRemove != null) {
+							players.removeValue(toRemove, true);
+							toRemove.releaseTexture();
+						}
+					});
 				}
 				if (object instanceof PlayerWon) {
 					MultiplayerPlayer winningPlayer = getPlayerByID(((PlayerWon) object).id);
 					if (winningPlayer != null)
 						win(winningPlayer);
 				}
+				if (object instanceof GameEnded)
+					leave("The game has been stopped by the server.", "Game Ended", JOptionPane.ERROR_MESSAGE);
 			}
 		}));
 	}
@@ -132,7 +189,8 @@ public class MPGame extends GameScreen {
 	public void render(float delta) {
 		super.render(delta);
 
-		checkInput();
+		applySnapshots(delta);
+		checkInput(delta);
 		
 		//get the player name coordinates according to the current camera position
 		Vector3 nameCord = new Vector3(player.getCenterX(), player.getCenterY(), 0);
@@ -142,20 +200,6 @@ public class MPGame extends GameScreen {
 		Vector3 scoreCord = new Vector3(10, 10, 0);
 		cam.unproject(scoreCord);
 		
-		//the mouse position relative to the camera
-		Vector3 mousePos = new Vector3(Gdx.input.getX(),Gdx.input.getY(),0);
-		cam.unproject(mousePos);
-
-		//tell the server that you have moved your mouse
-		if (mousePos != oldPos) {
-			oldPos = mousePos;
-			MouseMoved toSend = new MouseMoved();
-			toSend.id = player.getMultiplayerID();
-			toSend.x = mousePos.x;
-			toSend.y = mousePos.y;
-			client.sendUDP(toSend);
-		}
-		
 		//set the camera as the view
 		batch.setProjectionMatrix(cam.combined);
 
@@ -166,10 +210,19 @@ public class MPGame extends GameScreen {
 		if (player.getCenterX() - cam.viewportWidth > 0 && player.getCenterX() + cam.viewportWidth < map.getWidth())
 			cam.position.x = player.getCenterX();
 		
-		//validate the all projectiles are still moving
-		for (int i = 0; i < projectiles.size; i++)
-			if (projectiles.get(i).isDead(delta))
-				projectiles.removeValue(projectiles.get(i), false);
+		//remove projectiles that have stopped moving or, if simulated locally, have left the map
+		for (int i = 0; i < projectiles.size; i++) {
+			Projectile projectile = projectiles.get(i);
+			boolean simulated = trajectories.containsKey(projectile.getMultiplayerID());
+
+			if (simulated ? isOutOfBounds(projectile) : projectile.isDead(delta)) {
+				interpolation.remove(projectile.getMultiplayerID());
+				trajectories.remove(projectile.getMultiplayerID());
+				projectilesByID.remove(projectile.getMultiplayerID());
+				projectiles.removeIndex(i--);
+				projectile.destroy(); //after its ID is used, destroying returns it to its pool and clears its ID
+			}
+		}
 		
 		//start drawing sprites
 		batch.begin(); 
@@ -191,9 +244,10 @@ public class MPGame extends GameScreen {
 		for (int i = 0; i < players.size; i++)
 			players.get(i).draw(batch);
 			
-		//draw projectiles
+		//draw projectiles, leaving out those that have not been fired yet at the time they are drawn at
 		for (int i = 0; i < projectiles.size; i++)
-			projectiles.get(i).draw(batch);
+			if (!isWaitingToFire(projectiles.get(i)))
+				projectiles.get(i).draw(batch);
 		
 		//stop drawing sprites
 		batch.end();
@@ -211,12 +265,22 @@ public class MPGame extends GameScreen {
 	}
 
 	private void win(MultiplayerPlayer player) {
+		leave(player.getPlayerName() + " has won!", "Winner", JOptionPane.INFORMATION_MESSAGE);
+	}
+
+	/**
+	 * Leaves the game, returning to the menu and showing a message explaining why.
+	 * @param message the message to show
+	 * @param title the title of the message dialog
+	 * @param messageType the {@link JOptionPane} type of the message
+	 */
+	private void leave(String message, String title, int messageType) {
 		Gdx.app.postRunnable(() -> ControlGame.getInstance().setScreen(new MenuScreen()));
 
 		client.close();
 		dispose();
 
-		JOptionPane.showMessageDialog(null, player.getPlayerName() + " has won!", "Winner", JOptionPane.INFORMATION_MESSAGE);
+		JOptionPane.showMessageDialog(null, message, title, messageType);
 	}
 
 	public void resize(int width, int height) {}
@@ -227,7 +291,17 @@ public class MPGame extends GameScreen {
 
 	public void hide() {}
 
-	public void dispose() {}
+	public void dispose() {
+		//release the shared textures used by this game
+		for (Projectile projectile : projectiles)
+			projectile.releaseTexture();
+
+		for (MultiplayerPlayer player : players)
+			player.releaseTexture();
+
+		player.releaseTexture();
+		map.releaseTexture();
+	}
 	
 	/**
 	 * Gets a MultiplayerPlayer using its multiplayer id.
@@ -235,11 +309,7 @@ public class MPGame extends GameScreen {
 	 * @return the player that has a matching id or null
 	 */
 	private MultiplayerPlayer getPlayerByID(int id) {
-		for (MultiplayerPlayer player : players)
-			if (player.getMultiplayerID() == id)
-				return player;
-		
-		return null;
+		return playersByID.get(id);
 	}
 	
 	/**
@@ -248,50 +318,237 @@ public class MPGame extends GameScreen {
 	 * @return the projectile that has a matching id or null
 	 */
 	private Projectile getProjectileByID(int id) {
-		for (Projectile projectile : projectiles)
-			if (projectile.getMultiplayerID() == id)
-				return projectile;
-		
-		return null;
+		return projectilesByID.get(id);
 	}
 	
 	/**
-	 * Send player key presses to the server.
+	 * Applies the snapshots received since the last frame, then moves the remote players and projectiles to where they were at the render time.
+	 * @param delta the time since the last frame was rendered
+	 */
+	private void applySnapshots(float delta) {
+		if (renderTime >= 0)
+			renderTime += delta;
+
+		WorldSnapshot snapshot;
+		while ((snapshot = snapshots.poll()) != null) {
+			if (snapshot.frame <= appliedFrame)
+				continue;
+
+			if (snapshot.baseFrame != 0) {
+				WorldSnapshot base = getAppliedSnapshot(snapshot.baseFrame);
+				if (base == null)
+					continue; //the base is too old, the server sends a full snapshot once it stops being acknowledged
+
+				snapshot = SnapshotDelta.decode(base, snapshot);
+			}
+
+			snapshotHistory[snapshotCount++ % snapshotHistory.length] = snapshot;
+			applySnapshot(snapshot);
+		}
+
+		if (renderTime < 0)
+			return;
+
+		for (int i = 0; i < players.size; i++)
+			if (players.get(i) != player)
+				interpolate(players.get(i));
+
+		//projectiles are simulated from when they were fired unless the server is sending their positions
+		for (int i = 0; i < projectiles.size; i++) {
+			Projectile projectile = projectiles.get(i);
+			ProjectileTrajectory trajectory = trajectories.get(projectile.getMultiplayerID());
+
+			if (trajectory == null || interpolation.containsKey(projectile.getMultiplayerID()))
+				interpolate(projectile);
+			else
+				trajectory.apply(getProjectileTime(projectile), projectile);
+		}
+	}
+
+	/**
+	 * Gets the server time a projectile simulated from its trajectory is drawn at.<br>
+	 * This clients own projectiles are drawn at the newest server time it knows of, so they leave its predicted player as soon as they are added.
+	 * Other projectiles are drawn at the render time, the same time as the remote player that fired them.
+	 * @param projectile the projectile
+	 * @return the server time to draw the projectile at
 	 */
-	private void checkInput() {
-		checkKeyInput(Input.Keys.W);
-		checkKeyInput(Input.Keys.S);
-		checkKeyInput(Input.Keys.D);
-		checkKeyInput(Input.Keys.A);
-
-		checkMouseInput(Input.Buttons.LEFT);
-		checkMouseInput(Input.Buttons.RIGHT);
+	private float getProjectileTime(Projectile projectile) {
+		if (projectile.getFiredByID() == player.getMultiplayerID())
+			return renderTime + INTERPOLATION_DELAY;
+
+		return renderTime;
 	}
 
 	/**
-	 * Checks if a key has been pressed and notifies the server if so.
-	 * @param keyCode the keyCode to check
+	 * Checks whether a projectile simulated from its trajectory has been added before the time it is drawn at reaches the time it was fired.<br>
+	 * Such projectiles are not drawn, otherwise they would wait at their spawn position while the player that fired them moves away.
+	 * @param projectile the projectile to check
+	 * @return whether the projectile should not be drawn yet
 	 */
-	private void checkKeyInput(int keyCode) {
-		if (Gdx.input.isKeyPressed(keyCode)) {
-			KeyInput toSend = new KeyInput();
-			toSend.id = player.getMultiplayerID();
-			toSend.keyCode = keyCode;
-			client.sendTCP(toSend);
+	private boolean isWaitingToFire(Projectile projectile) {
+		ProjectileTrajectory trajectory = trajectories.get(projectile.getMultiplayerID());
+		if (trajectory == null || interpolation.containsKey(projectile.getMultiplayerID()))
+			return false;
+
+		return renderTime < 0 || !trajectory.hasFired(getProjectileTime(projectile));
+	}
+
+	/**
+	 * @param projectile the projectile to check
+	 * @return whether the projectile is completely outside of the map
+	 */
+	private boolean isOutOfBounds(Projectile projectile) {
+		return projectile.getX() + projectile.getWidth() < 0 || projectile.getX() > Network.GAME_WIDTH
+				|| projectile.getY() + projectile.getHeight() < 0 || projectile.getY() > Network.GAME_HEIGHT;
+	}
+
+	/**
+	 * @param frame the frame of a snapshot
+	 * @return the full snapshot applied on that frame, or null if it is no longer kept
+	 */
+	private WorldSnapshot getAppliedSnapshot(int frame) {
+		for (WorldSnapshot snapshot : snapshotHistory)
+			if (snapshot != null && snapshot.frame == frame)
+				return snapshot;
+
+		return null;
+	}
+
+	/**
+	 * Moves a remote entity to where it was at the render time.
+	 * @param entity the entity to move
+	 */
+	private void interpolate(Entity entity) {
+		InterpolationBuffer buffer = interpolation.get(entity.getMultiplayerID());
+		if (buffer != null)
+			buffer.apply(renderTime, entity);
+	}
+
+	/**
+	 * Applies a snapshot from the server, the states of remote entities are stored to be interpolated between.
+	 * @param snapshot the snapshot to apply
+	 */
+	private void applySnapshot(WorldSnapshot snapshot) {
+		appliedFrame = snapshot.frame;
+		syncRenderTime(snapshot.time);
+
+		for (int i = 0; i < snapshot.ids.length; i++) {
+			Entity toUpdate;
+
+			if (i < snapshot.playerCount) {
+				MultiplayerPlayer snapshotPlayer = getPlayerByID(snapshot.ids[i]);
+				if (snapshotPlayer != null) {
+					snapshotPlayer.setHealth(snapshot.health[i]);
+					snapshotPlayer.setKills(snapshot.kills[i]);
+				}
+				toUpdate = snapshotPlayer;
+			} else {
+				toUpdate = getProjectileByID(snapshot.ids[i]);
+			}
+
+			if (toUpdate == player) {
+				reconcile(snapshot, i);
+			} else if (toUpdate != null) {
+				InterpolationBuffer buffer = interpolation.get(snapshot.ids[i]);
+				if (buffer == null) {
+					buffer = new InterpolationBuffer();
+					interpolation.put(snapshot.ids[i], buffer);
+				}
+
+				buffer.add(snapshot.time, snapshot.positions[i * 2], snapshot.positions[i * 2 + 1], snapshot.rotations[i]);
+			}
 		}
 	}
 
 	/**
-	 * Checks if a mouse button has been pressed and notifies the server if so.
-	 * @param buttonCode the buttonCode to check
+	 * Keeps the render time a fixed delay behind the server time of the snapshots being received.<br>
+	 * Small differences are corrected gradually so packet jitter does not make entities jump.
+	 * @param snapshotTime the server time of a snapshot that has just arrived
+	 */
+	private void syncRenderTime(float snapshotTime) {
+		float target = snapshotTime - INTERPOLATION_DELAY;
+		float drift = target - renderTime;
+
+		if (renderTime < 0 || Math.abs(drift) > MAX_CLOCK_DRIFT)
+			renderTime = Math.max(0, target);
+		else
+			renderTime += drift * CLOCK_CORRECTION;
+	}
+
+	/**
+	 * Moves this clients player to where the server says it is, then replays the inputs the server has not applied yet.<br>
+	 * The player is moved locally as soon as input is sent, this corrects any difference between the local and server movement.
+	 * @param snapshot the snapshot from the server
+	 * @param index the players index in the snapshot
 	 */
-	private void checkMouseInput(int buttonCode) {
-		if (Gdx.input.isButtonPressed(buttonCode)) {
-			MouseInput toSend = new MouseInput();
-			toSend.id = player.getMultiplayerID();
-			toSend.buttonCode = buttonCode;
-			client.sendTCP(toSend);
+	private void reconcile(WorldSnapshot snapshot, int index) {
+		int acknowledged = snapshot.inputSequences[index];
+
+		//forget inputs the server has already applied
+		int applied = 0;
+		while (applied < pendingInputs.size && pendingInputs.get(applied).sequence <= acknowledged)
+			applied++;
+
+		if (applied > 0)
+			pendingInputs.removeRange(0, applied - 1);
+
+		player.setPosition(snapshot.positions[index * 2], snapshot.positions[index * 2 + 1]);
+		player.setVelocity(snapshot.velocities[index * 2], snapshot.velocities[index * 2 + 1]);
+
+		for (int i = 0; i < pendingInputs.size; i++) {
+			InputCommand input = pendingInputs.get(i);
+			player.applyInput(input.buttons, input.rotation, input.delta);
 		}
 	}
+
+	/**
+	 * Sends this frames input to the server as a single command.<br>
+	 * A command is sent every frame over UDP, so a lost command is replaced by the next one instead of being resent.
+	 * @param delta the time since the last frame was rendered
+	 */
+	private void checkInput(float delta) {
+		//the mouse position relative to the camera
+		Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
+		cam.unproject(mousePos);
+
+		//rotate the player towards the mouse
+		player.rotateTowards(mousePos.x, mousePos.y);
+		player.setRotation(player.getRotation() - 90); //-90 due to how the player sprite is drawn
+
+		int buttons = 0;
+
+		if (Gdx.input.isKeyPressed(Input.Keys.W))
+			buttons |= MultiplayerPlayer.UP;
+
+		if (Gdx.input.isKeyPressed(Input.Keys.S))
+			buttons |= MultiplayerPlayer.DOWN;
+
+		if (Gdx.input.isKeyPressed(Input.Keys.A))
+			buttons |= MultiplayerPlayer.LEFT;
+
+		if (Gdx.input.isKeyPressed(Input.Keys.D))
+			buttons |= MultiplayerPlayer.RIGHT;
+
+		if (Gdx.input.isButtonPressed(Input.Buttons.LEFT))
+			buttons |= MultiplayerPlayer.FIRE_LIGHT;
+
+		if (Gdx.input.isButtonPressed(Input.Buttons.RIGHT))
+			buttons |= MultiplayerPlayer.FIRE_HEAVY;
+
+		InputCommand toSend = new InputCommand();
+		toSend.sequence = ++inputSequence;
+		toSend.buttons = buttons;
+		toSend.rotation = player.getRotation();
+		toSend.delta = Math.min(delta, MultiplayerPlayer.MAX_INPUT_DELTA);
+		toSend.snapshotAck = appliedFrame;
+		client.sendUDP(toSend);
+
+		//move straight away instead of waiting for the server, the move is checked when the server applies the input
+		player.applyInput(toSend.buttons, toSend.rotation, toSend.delta);
+		pendingInputs.add(toSend);
+
+		if (pendingInputs.size > MAX_PENDING_INPUTS)
+			pendingInputs.removeIndex(0);
+	}
 	
 }
@@ -7,13 +7,23 @@ import backend.enemies.Enemy;
 import backend.entities.Entity;
 import backend.entities.InanimateEntity;
 import backend.entities.Player;
+import backend.logic.CollisionMatrix;
+import backend.logic.CollisionPairs;
+import backend.logic.EntityCommandBuffer;
+import backend.logic.EntityStore;
+import backend.logic.LifetimeManager;
+import backend.logic.ParallelUpdate;
+import backend.logic.SpatialHash;
 import backend.logic.Spawner;
+import backend.projectiles.Ball;
 import backend.projectiles.LockOn;
 import backend.projectiles.Projectile;
+import backend.projectiles.ProjectilePool;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
 /**
  * The screen that contains the singleplayer game.
  * @author Connor Stewart
@@ -26,15 +36,47 @@ public class SPGame extends GameScreen {
 	/** The width of the game. */
 	public static final int GAME_WIDTH = 100;
 
+	/**
+	 * Whether collision checks are split across threads when enough broadphase cells are used, set with the game.parallelUpdate system property.<br>
+	 * Entity updates are only split for games holding {@link ParallelUpdate#MIN_ENTITIES}, more than {@link LifetimeManager#MAX_ENTITIES}, so in practice they stay on this thread.
+	 */
+	private static final boolean PARALLEL_UPDATE = Boolean.getBoolean("game.parallelUpdate");
+
 	/** The entities currently active within the game. */
 	private Array<Entity> activeEntities;
 
+	/** Queues entities spawned and removed during an update, they are applied to the active entities at the end of the update. */
+	private EntityCommandBuffer commands;
+
 	/** The animations currently active within the game. */
 	private Array<AnimationHandler> activeAnimations;
 
 	/** The effects currently active within the game. */
 	private Array<Effect> activeEffects;
 
+	/** The size of each cell in the collision broadphase grid. */
+	private static final float BROADPHASE_CELL_SIZE = 5;
+
+	/** The grid used to find entities that are near each other. */
+	private final SpatialHash broadphase = new SpatialHash(GAME_WIDTH, GAME_HEIGHT, BROADPHASE_CELL_SIZE);
+
+	/** The bounds of the active entities, loaded once per collision pass. */
+	private final EntityStore store = new EntityStore();
+
+	/** The pairs of entities whose bounds overlap, found each collision pass. */
+	private final LongArray pairs = new LongArray();
+
+	/** The projectiles fired by enemies, shared by every enemy so they are reused after the enemy that fired them is destroyed. */
+	private final ProjectilePool<Ball> enemyProjectiles = new ProjectilePool<Ball>() {
+		@Override
+		protected Ball newObject() {
+			return new Ball();
+		}
+	};
+
+	/** Removes entities that have left the map or expired and limits how many entities the game holds. */
+	private final LifetimeManager lifetimes = new LifetimeManager(GAME_WIDTH, GAME_HEIGHT);
+
 	/** The spawner responsible for spawning enemies. */
 	private Spawner spawner;
 
@@ -58,6 +100,7 @@ public class SPGame extends GameScreen {
 		//instantiate logic entities
 		spawner = new Spawner(this);
 		activeEntities = new Array<Entity>();
+		commands = new EntityCommandBuffer(activeEntities);
 		activeEffects = new Array<Effect>();
 		activeAnimations = new Array<AnimationHandler>();
 
@@ -138,43 +181,78 @@ public class SPGame extends GameScreen {
 		//spawn enemies
 		spawner.spawnEnemies(delta);
 
-		try {
-			//check for collisions between entities
-			for (int entity1Index = 0; entity1Index < activeEntities.size; entity1Index++) {
-				for (int entity2Index = 0; entity2Index < activeEntities.size; entity2Index++) {
-					Entity e1 = activeEntities.get(entity1Index);
-					Entity e2 = activeEntities.get(entity2Index);
-					if (e1.getBoundingRectangle().overlaps(e2.getBoundingRectangle())) {
-						if (e1.onCollision(e2)) {
-							e1.onDestroy();
-							activeEntities.removeValue(e1, false);
-						}
-						if (e2.onCollision(e1)) {
-							e2.onDestroy();
-							activeEntities.removeValue(e2, false);
-						}
-					}//end checking for collisions
-				}//end e2 loop
-			}//end e1 loop
-		} catch (IndexOutOfBoundsException e2) {
-			//TODO: keep an eye on this bug.
-			System.out.println("Index Exception Bug");
-		}
+		//check for collisions between entities
+		checkCollisions();
 
-		//loop through effects
-		for (Effect effect : activeEffects)
-			if (effect.time(delta))
-				activeEffects.removeValue(effect, false);
+		//time effects, removing the ones that have ended
+		int keptEffects = 0;
+		for (int i = 0; i < activeEffects.size; i++) {
+			Effect effect = activeEffects.get(i);
+			if (!effect.time(delta))
+				activeEffects.set(keptEffects++, effect);
+		}
+		activeEffects.truncate(keptEffects);
 		
-		//move entities
-		for (Entity entity : activeEntities)
-			entity.update(delta);
+		//move entities that have not been removed this update, independent entities can be moved across threads first
+		if (PARALLEL_UPDATE)
+			ParallelUpdate.updateIndependent(activeEntities, delta, i -> !commands.isRemoved(i));
+
+		for (int i = 0; i < activeEntities.size; i++) {
+			Entity entity = activeEntities.get(i);
+			if (!commands.isRemoved(i) && !(PARALLEL_UPDATE && entity.updatesIndependently()))
+				entity.update(delta);
+		}
+
+		//remove entities that have left the map or expired
+		lifetimes.update(activeEntities, commands, delta);
+
+		//apply the spawns and removals queued during this update
+		commands.apply();
 		
 		//update the animations and remove if they need to
-		for (AnimationHandler animation : activeAnimations)
-			if (animation.update(delta))
-				activeAnimations.removeValue(animation, false);
+		int keptAnimations = 0;
+		for (int i = 0; i < activeAnimations.size; i++) {
+			AnimationHandler animation = activeAnimations.get(i);
+			if (!animation.update(delta))
+				activeAnimations.set(keptAnimations++, animation);
+		}
+		activeAnimations.truncate(keptAnimations);
+	}
+
+	/**
+	 * Checks for collisions between entities that are near each other, each pair is only checked once.<br>
+	 * Pairs whose layers do not interact are skipped before their bounds are compared, see {@link CollisionMatrix}.
+	 * Overlapping pairs are found first, across threads if enabled, then resolved in order of their indexes so the result does not depend on how the work was split.
+	 * Entities destroyed by a collision are queued for removal, so the indexes stored in the broadphase stay valid.
+	 */
+	private void checkCollisions() {
+		//work out every entities bounds once and place them in the broadphase grid
+		store.load(activeEntities);
+		store.loadLayers(activeEntities);
+		broadphase.clear();
+		for (int i = 0; i < store.size(); i++)
+			store.insert(broadphase, i);
+
+		CollisionPairs.find(broadphase, store, PARALLEL_UPDATE, pairs);
+
+		for (int i = 0; i < pairs.size; i++) {
+			int e1Index = CollisionPairs.first(pairs.get(i));
+			int e2Index = CollisionPairs.second(pairs.get(i));
 
+			if (commands.isRemoved(e1Index) || commands.isRemoved(e2Index))
+				continue;
+
+			Entity e1 = activeEntities.get(e1Index);
+			Entity e2 = activeEntities.get(e2Index);
+
+			int result = CollisionMatrix.resolve(e1, e2);
+
+			if ((result & CollisionMatrix.DESTROY_FIRST) != 0)
+				commands.destroy(e1Index);
+
+			if ((result & CollisionMatrix.DESTROY_SECOND) != 0)
+				commands.destroy(e2Index);
+		}
 	}
 
 	/**
@@ -183,7 +261,7 @@ public class SPGame extends GameScreen {
 	private void checkInput() {
 		Projectile potentialProjectile = player.fire();
 		if (potentialProjectile != null)
-			activeEntities.add(potentialProjectile);
+			addEntity(potentialProjectile);
 	}
 
 	/**
@@ -197,7 +275,7 @@ public class SPGame extends GameScreen {
 
 		for (int i = 0; i < activeEntities.size; i++) {
 			Entity entity = activeEntities.get(i);
-			if (entity instanceof Enemy) {
+			if (entity instanceof Enemy && !commands.isRemoved(i)) {
 				if (!(entity instanceof Asteroid)) {
 					if (projectile.canSee(entity)) {
 						double distance = projectile.distanceBetween(entity);
@@ -236,11 +314,14 @@ public class SPGame extends GameScreen {
 	}
 
 	/**
-	 * Adds a new entity to the game.
+	 * Adds a new entity to the game at the end of the current update, the entity is discarded if the game already holds {@link LifetimeManager#MAX_ENTITIES}.
 	 * @param toAdd the entity to add
 	 */
 	public void addEntity(Entity toAdd) {
-		activeEntities.add(toAdd);
+		if (lifetimes.hasRoom(activeEntities, commands))
+			commands.spawn(toAdd);
+		else
+			toAdd.discard();
 	}
 
 	/**
@@ -258,6 +339,20 @@ public class SPGame extends GameScreen {
 		return player;
 	}
 
+	/**
+	 * @return the spawner responsible for spawning enemies
+	 */
+	public Spawner getSpawner() {
+		return spawner;
+	}
+
+	/**
+	 * @return the pool enemies take their projectiles from
+	 */
+	public ProjectilePool<Ball> getEnemyProjectiles() {
+		return enemyProjectiles;
+	}
+
 	/**
 	 * Adds a new animation to game.
 	 * @param toAdd the animation to add.
@@ -266,4 +361,18 @@ public class SPGame extends GameScreen {
 		activeAnimations.add(toAdd);
 	}
 
+	@Override
+	public void dispose() {
+		super.dispose();
+
+		//release the shared textures used by this game
+		commands.clear();
+		for (Entity entity : activeEntities)
+			entity.releaseTexture();
+
+		spawner.dispose();
+		enemyProjectiles.dispose();
+		map.releaseTexture();
+	}
+
 }
@@ -0,0 +1,60 @@
+package backend.entities;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Rectangle;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that entities work out their bounds the same way as the libGDX sprites they used to extend.
+ * @author Connor Stewart
+ */
+class InanimateEntityTest {
+
+	/** How far the bounds can differ from the sprites bounds, to allow for floating point rounding. */
+	private static final float TOLERANCE = 0.001f;
+
+	/**
+	 * Compares the bounds of entities and sprites placed, sized, rotated and scaled the same way.
+	 */
+	@Test
+	void boundingRectangleMatchesSprite() {
+		Random random = new Random(18);
+
+		for (int i = 0; i < 1000; i++) {
+			float x = random.nextFloat() * 100;
+			float y = random.nextFloat() * 100;
+			float width = 0.5f + random.nextFloat() * 10;
+			float height = 0.5f + random.nextFloat() * 10;
+			float originX = random.nextFloat() * width;
+			float originY = random.nextFloat() * height;
+			float rotation = i % 4 == 0 ? 0 : random.nextFloat() * 720 - 360;
+			float scaleX = 0.25f + random.nextFloat() * 2;
+			float scaleY = 0.25f + random.nextFloat() * 2;
+
+			InanimateEntity entity = new InanimateEntity("unused.png", width, height);
+			entity.setPosition(x, y);
+			entity.setOrigin(originX, originY);
+			entity.setRotation(rotation);
+			entity.setScale(scaleX, scaleY);
+
+			Sprite sprite = new Sprite();
+			sprite.setBounds(x, y, width, height);
+			sprite.setOrigin(originX, originY);
+			sprite.setRotation(rotation);
+			sprite.setScale(scaleX, scaleY);
+
+			Rectangle expected = sprite.getBoundingRectangle();
+			Rectangle actual = entity.getBoundingRectangle();
+
+			assertEquals(expected.x, actual.x, TOLERANCE);
+			assertEquals(expected.y, actual.y, TOLERANCE);
+			assertEquals(expected.width, actual.width, TOLERANCE);
+			assertEquals(expected.height, actual.height, TOLERANCE);
+		}
+	}
+
+}
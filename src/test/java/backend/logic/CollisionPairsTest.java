@@ -0,0 +1,63 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the broadphase finds every overlapping pair exactly once, in the same order whether or not it is split across threads.
+ * @author Connor Stewart
+ */
+class CollisionPairsTest {
+
+	/** The layers entities are placed on, so some overlapping pairs do not interact. */
+	private static final int[] LAYERS = {CollisionMatrix.PLAYER, CollisionMatrix.ENEMY, CollisionMatrix.ASTEROID,
+			CollisionMatrix.PLAYER_PROJECTILE, CollisionMatrix.ENEMY_PROJECTILE, CollisionMatrix.PICKUP};
+
+	/**
+	 * Compares the pairs found on one thread and across threads with checking every pair of 3000 entities, some of which are partly outside the world.
+	 */
+	@Test
+	void findMatchesBruteForce() {
+		Random random = new Random(24);
+		Array<Entity> entities = new Array<>();
+		for (int i = 0; i < 3000; i++) {
+			Entity entity = TestEntity.random(random, 110, 110, LAYERS[random.nextInt(LAYERS.length)]);
+			entity.translate(-5, -5);
+			entities.add(entity);
+		}
+
+		EntityStore store = new EntityStore();
+		store.load(entities);
+		store.loadLayers(entities);
+
+		SpatialHash broadphase = new SpatialHash(100, 100, 5);
+		for (int i = 0; i < store.size(); i++)
+			store.insert(broadphase, i);
+
+		assertTrue(broadphase.getUsedCellCount() >= CollisionPairs.MIN_PARALLEL_CELLS, "the grid is too small to be split across threads");
+
+		LongArray expected = new LongArray();
+		for (int a = 0; a < store.size(); a++)
+			for (int b = a + 1; b < store.size(); b++)
+				if (store.interacts(a, b) && store.overlaps(a, b))
+					expected.add((long) a << 32 | b);
+
+		LongArray serial = new LongArray();
+		CollisionPairs.find(broadphase, store, false, serial);
+
+		LongArray parallel = new LongArray();
+		CollisionPairs.find(broadphase, store, true, parallel);
+
+		assertTrue(expected.size > 0, "no entities overlap");
+		assertArrayEquals(expected.toArray(), serial.toArray());
+		assertArrayEquals(expected.toArray(), parallel.toArray());
+	}
+
+}
@@ -0,0 +1,66 @@
+package backend.logic;
+
+import backend.entities.Entity;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the stored bounds give the same overlaps as the rectangles they were loaded from.
+ * @author Connor Stewart
+ */
+class EntityStoreTest {
+
+	/**
+	 * Compares every pair of 400 entities using the store and using copies of their bounding rectangles.
+	 */
+	@Test
+	void overlapsMatchesRectangles() {
+		Random random = new Random(23);
+		Array<Entity> entities = new Array<>();
+		for (int i = 0; i < 400; i++)
+			entities.add(TestEntity.random(random, 100, 100, CollisionMatrix.ENEMY));
+
+		EntityStore store = new EntityStore();
+		store.load(entities);
+		assertEquals(entities.size, store.size());
+
+		Rectangle[] bounds = new Rectangle[entities.size];
+		for (int i = 0; i < entities.size; i++)
+			bounds[i] = new Rectangle(entities.get(i).getBoundingRectangle());
+
+		for (int a = 0; a < entities.size; a++)
+			for (int b = 0; b < entities.size; b++)
+				assertEquals(bounds[a].overlaps(bounds[b]), store.overlaps(a, b), "entities " + a + " and " + b);
+	}
+
+	/**
+	 * Checks that updating a single entity replaces its stored bounds.
+	 */
+	@Test
+	void updateReplacesBounds() {
+		Entity first = new TestEntity(CollisionMatrix.PLAYER);
+		first.setBounds(0, 0, 2, 2);
+		Entity second = new TestEntity(CollisionMatrix.ENEMY);
+		second.setBounds(10, 10, 2, 2);
+
+		Array<Entity> entities = new Array<>();
+		entities.add(first);
+		entities.add(second);
+
+		EntityStore store = new EntityStore();
+		store.load(entities);
+		assertFalse(store.overlaps(0, 1));
+
+		first.setPosition(9, 9);
+		store.update(0, first);
+		assertTrue(store.overlaps(0, 1));
+	}
+
+}
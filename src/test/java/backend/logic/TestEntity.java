@@ -0,0 +1,55 @@
+package backend.logic;
+
+import backend.entities.Entity;
+
+import java.util.Random;
+
+/**
+ * An entity that does nothing, used to place bounds in the game area for collision tests.
+ * @author Connor Stewart
+ */
+class TestEntity extends Entity {
+
+	/** The collision layer of this entity. */
+	private final int layer;
+
+	/**
+	 * Creates an entity on a collision layer.
+	 * @param layer the collision layer from {@link CollisionMatrix}
+	 */
+	TestEntity(int layer) {
+		super("unused.png", 0, 0);
+		this.layer = layer;
+	}
+
+	/**
+	 * Creates an entity with a random size, position and rotation inside an area.
+	 * @param random the random number generator to use
+	 * @param width the width of the area
+	 * @param height the height of the area
+	 * @param layer the collision layer from {@link CollisionMatrix}
+	 * @return the entity
+	 */
+	static TestEntity random(Random random, float width, float height, int layer) {
+		TestEntity entity = new TestEntity(layer);
+		entity.setSize(0.5f + random.nextFloat() * 6, 0.5f + random.nextFloat() * 6);
+		entity.setOriginCenter();
+		entity.setPosition(random.nextFloat() * width, random.nextFloat() * height);
+		if (random.nextBoolean())
+			entity.setRotation(random.nextFloat() * 360);
+
+		return entity;
+	}
+
+	@Override
+	public int getCollisionLayer() {
+		return layer;
+	}
+
+	@Override
+	public void onDestroy() {}
+
+	@Override
+	public void update(float delta) {}
+
+}
@@ -0,0 +1,159 @@
+package network;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import network.Network.AddProjectile;
+import network.Network.InputCommand;
+import network.Network.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the hand written serializers read back what they wrote, within the precision they quantize each value to.
+ * @author Connor Stewart
+ */
+class SerializerTest {
+
+	/** The distance between two 16 bit coordinates across the game area. */
+	private static final float COORDINATE_TOLERANCE = Network.GAME_WIDTH / 65535f;
+
+	/** The angle between two 16 bit rotations. */
+	private static final float ROTATION_TOLERANCE = 360f / 65536;
+
+	/**
+	 * Writes a full snapshot with values on and past the edges of each quantized range.
+	 */
+	@Test
+	void worldSnapshotKeepsValuesWithinBounds() {
+		WorldSnapshot snapshot = SnapshotDeltaTest.snapshot(70000, new int[] {1, 2, 3}, new int[] {400, 65535});
+		snapshot.positions = new float[] {0, 0, Network.GAME_WIDTH, Network.GAME_HEIGHT, -5, 120, 33.3f, 66.6f, 50, 0.001f};
+		snapshot.rotations = new float[] {0, 359, 360, -1, 725};
+		snapshot.health = new float[] {0, 100, 37.5f};
+		snapshot.velocities = new float[] {-32, 32, -40, 40, 0.1f, -12.75f};
+
+		WorldSnapshot read = roundTrip(snapshot, WorldSnapshot.class);
+
+		assertEquals(snapshot.frame, read.frame);
+		assertEquals(snapshot.time, read.time);
+		assertEquals(0, read.baseFrame);
+		assertEquals(snapshot.playerCount, read.playerCount);
+		assertArrayEquals(snapshot.ids, read.ids);
+		assertArrayEquals(new float[] {0, 0, Network.GAME_WIDTH, Network.GAME_HEIGHT, 0, Network.GAME_HEIGHT, 33.3f, 66.6f, 50, 0.001f}, read.positions, COORDINATE_TOLERANCE);
+		assertArrayEquals(new float[] {0, 359, 0, 359, 5}, read.rotations);
+		assertArrayEquals(snapshot.health, read.health, 1f / 256);
+		assertArrayEquals(snapshot.kills, read.kills);
+		assertArrayEquals(new float[] {-32, 32, -32, 32, 0.1f, -12.75f}, read.velocities, 64f / 65534);
+		assertArrayEquals(snapshot.inputSequences, read.inputSequences);
+	}
+
+	/**
+	 * Writes a delta snapshot, which also holds the change bits and removed IDs.
+	 */
+	@Test
+	void deltaSnapshotKeepsChangesAndRemovedIDs() {
+		WorldSnapshot base = SnapshotDeltaTest.snapshot(10, new int[] {1, 2}, new int[] {10, 11});
+		WorldSnapshot current = SnapshotDeltaTest.snapshot(13, new int[] {1}, new int[] {11, 12});
+		WorldSnapshot delta = SnapshotDelta.encode(base, current);
+
+		WorldSnapshot read = roundTrip(delta, WorldSnapshot.class);
+
+		assertEquals(delta.baseFrame, read.baseFrame);
+		assertEquals(delta.playerCount, read.playerCount);
+		assertArrayEquals(delta.ids, read.ids);
+		assertArrayEquals(delta.changes, read.changes);
+		assertArrayEquals(delta.removed, read.removed);
+		assertArrayEquals(delta.positions, read.positions, COORDINATE_TOLERANCE);
+		assertArrayEquals(delta.rotations, read.rotations);
+		assertArrayEquals(delta.inputSequences, read.inputSequences);
+	}
+
+	/**
+	 * Writes input commands with every input bit held and rotations that need wrapping.
+	 */
+	@Test
+	void inputCommandKeepsInputAndWrapsRotation() {
+		float[] rotations = {0, 359.999f, 360, -90, -97.3f, 450.25f};
+		float[] expected = {0, 0, 0, 270, 262.7f, 90.25f};
+
+		for (int i = 0; i < rotations.length; i++) {
+			InputCommand command = new InputCommand();
+			command.sequence = Integer.MAX_VALUE - i;
+			command.buttons = 0x3F;
+			command.rotation = rotations[i];
+			command.delta = 0.016f;
+			command.snapshotAck = 70000 + i;
+
+			InputCommand read = roundTrip(command, InputCommand.class);
+
+			assertEquals(command.sequence, read.sequence);
+			assertEquals(command.buttons, read.buttons);
+			assertEquals(command.snapshotAck, read.snapshotAck);
+			assertAngleEquals(expected[i], read.rotation);
+			assertEquals(0, read.delta, "the frame time is not sent");
+		}
+	}
+
+	/**
+	 * Writes projectiles fired from the edges of the area a spawn position can be stored in.
+	 */
+	@Test
+	void addProjectileKeepsSpawnJustOutsideMap() {
+		float[] positions = {-10, -2.5f, 0, Network.GAME_WIDTH, Network.GAME_WIDTH + 10, Network.GAME_WIDTH + 30};
+		float[] expected = {-10, -2.5f, 0, Network.GAME_WIDTH, Network.GAME_WIDTH + 10, Network.GAME_WIDTH + 10};
+
+		for (int i = 0; i < positions.length; i++) {
+			AddProjectile projectile = new AddProjectile();
+			projectile.playerID = 3;
+			projectile.id = 65535;
+			projectile.type = "Heavy";
+			projectile.x = positions[i];
+			projectile.y = positions[positions.length - 1 - i];
+			projectile.rotation = -450;
+			projectile.speed = 40;
+			projectile.time = 1234.5678f;
+
+			AddProjectile read = roundTrip(projectile, AddProjectile.class);
+
+			assertEquals(projectile.playerID, read.playerID);
+			assertEquals(projectile.id, read.id);
+			assertEquals(projectile.type, read.type);
+			assertEquals(expected[i], read.x, COORDINATE_TOLERANCE * 1.2f);
+			assertEquals(expected[positions.length - 1 - i], read.y, COORDINATE_TOLERANCE * 1.2f);
+			assertAngleEquals(270, read.rotation);
+			assertEquals(projectile.speed, read.speed);
+			assertEquals(projectile.time, read.time);
+		}
+	}
+
+	/**
+	 * Writes a message with the same serializers clients and the server register, then reads it back.
+	 * @param message the message to write
+	 * @param type the class of the message
+	 * @param <T> the type of the message
+	 * @return the message that was read
+	 */
+	private static <T> T roundTrip(T message, Class<T> type) {
+		Kryo kryo = new Kryo();
+		kryo.register(WorldSnapshot.class, new WorldSnapshotSerializer());
+		kryo.register(InputCommand.class, new InputCommandSerializer());
+		kryo.register(AddProjectile.class, new AddProjectileSerializer());
+
+		Output output = new Output(Network.OBJECT_BUFFER_SIZE);
+		kryo.writeObject(output, message);
+		return kryo.readObject(new Input(output.toBytes()), type);
+	}
+
+	/**
+	 * Checks that two angles point the same way, to within the precision of a 16 bit rotation.
+	 * @param expected the expected angle in degrees
+	 * @param actual the angle to check in degrees
+	 */
+	private static void assertAngleEquals(float expected, float actual) {
+		float difference = ((actual - expected) % 360 + 540) % 360 - 180;
+		assertEquals(0, difference, ROTATION_TOLERANCE);
+	}
+
+}
@@ -0,0 +1,147 @@
+package network;
+
+import network.Network.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a snapshot rebuilt from a delta matches the snapshot the delta was encoded from.
+ * @author Connor Stewart
+ */
+class SnapshotDeltaTest {
+
+	/**
+	 * Encodes a snapshot where players and projectiles have been added, removed, changed and left alone, then rebuilds it.
+	 */
+	@Test
+	void decodeRebuildsEncodedSnapshot() {
+		WorldSnapshot base = snapshot(10, new int[] {1, 2, 3}, new int[] {10, 11, 12});
+
+		//player 1 and projectile 10 are unchanged, player 2 and projectile 11 are removed, player 4 and projectiles 13 and 14 are new
+		WorldSnapshot current = snapshot(13, new int[] {1, 3, 4}, new int[] {10, 12, 13, 14});
+		copyEntity(base, 0, current, 0, true);
+		copyEntity(base, 2, current, 1, true);
+		copyEntity(base, 3, current, 3, false);
+		copyEntity(base, 5, current, 4, false);
+
+		//player 3 moves and is hit, but keeps its rotation and motion
+		current.positions[2] += 1.5f;
+		current.health[1] -= 10;
+		current.kills[1]++;
+
+		//projectile 12 only turns
+		current.rotations[4] += 45;
+
+		WorldSnapshot delta = SnapshotDelta.encode(base, current);
+
+		assertEquals(base.frame, delta.baseFrame);
+		assertArrayEquals(new int[] {2, 11}, delta.removed);
+		assertArrayEquals(new int[] {3, 4, 12, 13, 14}, delta.ids, "unchanged entities should be left out");
+		assertArrayEquals(new byte[] {SnapshotDelta.POSITION | SnapshotDelta.STATS, SnapshotDelta.ALL, SnapshotDelta.ROTATION,
+				SnapshotDelta.POSITION | SnapshotDelta.ROTATION, SnapshotDelta.POSITION | SnapshotDelta.ROTATION}, delta.changes);
+
+		assertSnapshotsEqual(current, SnapshotDelta.decode(base, delta));
+	}
+
+	/**
+	 * Encodes a snapshot that has not changed at all.
+	 */
+	@Test
+	void decodeRebuildsUnchangedSnapshot() {
+		WorldSnapshot base = snapshot(20, new int[] {1, 2}, new int[] {5, 6});
+		WorldSnapshot current = snapshot(23, new int[] {1, 2}, new int[] {5, 6});
+		for (int i = 0; i < base.ids.length; i++)
+			copyEntity(base, i, current, i, i < base.playerCount);
+
+		WorldSnapshot delta = SnapshotDelta.encode(base, current);
+
+		assertEquals(0, delta.ids.length);
+		assertEquals(0, delta.removed.length);
+		assertSnapshotsEqual(current, SnapshotDelta.decode(base, delta));
+	}
+
+	/**
+	 * Creates a full snapshot, every entity is given different values based on its ID.
+	 * @param frame the frame of the snapshot
+	 * @param players the IDs of the players
+	 * @param projectiles the IDs of the projectiles
+	 * @return the snapshot
+	 */
+	static WorldSnapshot snapshot(int frame, int[] players, int[] projectiles) {
+		int count = players.length + projectiles.length;
+
+		WorldSnapshot snapshot = new WorldSnapshot();
+		snapshot.frame = frame;
+		snapshot.time = frame / 60f;
+		snapshot.playerCount = players.length;
+		snapshot.ids = new int[count];
+		snapshot.positions = new float[count * 2];
+		snapshot.rotations = new float[count];
+		snapshot.health = new float[players.length];
+		snapshot.kills = new int[players.length];
+		snapshot.velocities = new float[players.length * 2];
+		snapshot.inputSequences = new int[players.length];
+
+		for (int i = 0; i < count; i++) {
+			int id = i < players.length ? players[i] : projectiles[i - players.length];
+			snapshot.ids[i] = id;
+			snapshot.positions[i * 2] = id * 3 + frame;
+			snapshot.positions[i * 2 + 1] = id * 2 + frame;
+			snapshot.rotations[i] = id * 7 + frame;
+
+			if (i < players.length) {
+				snapshot.health[i] = 100 - id - frame;
+				snapshot.kills[i] = id + frame;
+				snapshot.velocities[i * 2] = id + frame;
+				snapshot.velocities[i * 2 + 1] = -id - frame;
+				snapshot.inputSequences[i] = id * 100 + frame;
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Copies the fields of an entity from one snapshot to another.
+	 * @param from the snapshot to copy from
+	 * @param f the entities index in the snapshot being copied from
+	 * @param to the snapshot to copy to
+	 * @param t the entities index in the snapshot being copied to
+	 * @param isPlayer true if the entity is a player
+	 */
+	private static void copyEntity(WorldSnapshot from, int f, WorldSnapshot to, int t, boolean isPlayer) {
+		assertEquals(from.ids[f], to.ids[t]);
+		to.positions[t * 2] = from.positions[f * 2];
+		to.positions[t * 2 + 1] = from.positions[f * 2 + 1];
+		to.rotations[t] = from.rotations[f];
+
+		if (isPlayer) {
+			to.health[t] = from.health[f];
+			to.kills[t] = from.kills[f];
+			to.velocities[t * 2] = from.velocities[f * 2];
+			to.velocities[t * 2 + 1] = from.velocities[f * 2 + 1];
+			to.inputSequences[t] = from.inputSequences[f];
+		}
+	}
+
+	/**
+	 * Checks that two full snapshots hold the same entities in the same order with the same fields.
+	 * @param expected the expected snapshot
+	 * @param actual the snapshot to check
+	 */
+	static void assertSnapshotsEqual(WorldSnapshot expected, WorldSnapshot actual) {
+		assertEquals(expected.frame, actual.frame);
+		assertEquals(expected.time, actual.time);
+		assertEquals(expected.playerCount, actual.playerCount);
+		assertArrayEquals(expected.ids, actual.ids);
+		assertArrayEquals(expected.positions, actual.positions);
+		assertArrayEquals(expected.rotations, actual.rotations);
+		assertArrayEquals(expected.health, actual.health);
+		assertArrayEquals(expected.kills, actual.kills);
+		assertArrayEquals(expected.velocities, actual.velocities);
+		assertArrayEquals(expected.inputSequences, actual.inputSequences);
+	}
+
+}